@@ -0,0 +1,32 @@
+package com.moneymanager.benchmarks;
+
+import com.moneymanager.model.Budget;
+import com.moneymanager.model.Money;
+import com.moneymanager.service.BudgetService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class BudgetServiceBenchmark extends LedgerBenchmark {
+
+    private static final Money[] ALLOCATIONS = {Money.ofCents(60000), Money.ofCents(65000)};
+
+    private BudgetService budgetService;
+    private Budget budget;
+    private int calls;
+
+    @Override
+    protected void setUp() {
+        budgetService = context.getBean(BudgetService.class);
+        budget = budgetService.getAllBudgets().stream()
+                .filter(candidate -> "Food & Dining".equals(candidate.getCategory()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // Alternates the allocation so every call writes a real change
+    @Benchmark
+    public Budget saveBudget() {
+        budget.setAllocatedAmount(ALLOCATIONS[calls++ & 1]);
+        budget = budgetService.saveBudget(budget);
+        return budget;
+    }
+}
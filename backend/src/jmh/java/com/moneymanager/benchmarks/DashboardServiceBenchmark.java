@@ -0,0 +1,20 @@
+package com.moneymanager.benchmarks;
+
+import com.moneymanager.dto.DashboardStatsDTO;
+import com.moneymanager.service.DashboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class DashboardServiceBenchmark extends LedgerBenchmark {
+
+    private DashboardService dashboardService;
+
+    @Override
+    protected void setUp() {
+        dashboardService = context.getBean(DashboardService.class);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO getDashboardStats() {
+        return dashboardService.getDashboardStats();
+    }
+}
@@ -0,0 +1,107 @@
+package com.moneymanager.benchmarks;
+
+import com.moneymanager.MoneyManagerApplication;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.service.ProjectionLoader;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database holding a deterministic ledger of the requested size. The rows are
+ * generated by a single INSERT ... SELECT once the schema and seed data exist
+ * but before the in-memory projections load, so rollups, the column store and
+ * the search index are built from the full data set as they are in production.
+ */
+final class LedgerFixture {
+
+    static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+    static final String[] CATEGORIES = {"Shopping", "Income", "Food & Dining", "Transportation",
+            "Bills & Utilities", "Entertainment", "Investment"};
+
+    private LedgerFixture() {
+    }
+
+    static ConfigurableApplicationContext start(int rows) {
+        SpringApplication application = new SpringApplication(MoneyManagerApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        // Seeds in the lifecycle phase just ahead of ProjectionLoader, once every singleton exists
+        application.addInitializers(context -> context.getBeanFactory().registerSingleton("ledgerSeeder",
+                new SmartLifecycle() {
+                    private boolean running;
+
+                    @Override
+                    public void start() {
+                        seed(context.getBean(JdbcTemplate.class), rows);
+                        running = true;
+                    }
+
+                    @Override
+                    public void stop() {
+                        running = false;
+                    }
+
+                    @Override
+                    public boolean isRunning() {
+                        return running;
+                    }
+
+                    @Override
+                    public int getPhase() {
+                        return ProjectionLoader.PHASE - 1;
+                    }
+                }));
+        // Command-line arguments outrank application.properties. H2 would otherwise hand
+        // back the cached result of an identical query on unchanged tables, and the
+        // benchmarks would time that cache instead of the query
+        return application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.moneymanager=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--moneymanager.budget.reconcile.cron=-");
+    }
+
+    // Same distribution as transactions(), computed by the database
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update(
+                "INSERT INTO transactions (id, description, category_id, date, amount_cents, type) " +
+                "SELECT NEXT VALUE FOR transactions_seq, CONCAT(c.name, ' payment ', MOD(r.X, 500)), c.id, " +
+                "DATEADD(DAY, -MOD(r.X * 7919, 730), DATE '2024-12-31'), 100 + MOD(r.X * 104729, 50000), " +
+                "CASE WHEN c.name = 'Income' THEN 'INCOME' ELSE 'EXPENSE' END " +
+                "FROM SYSTEM_RANGE(1, ?) r JOIN categories c ON c.name = " + categoryByIndex(),
+                rows);
+    }
+
+    /** The ledger the database is seeded with, built in memory. */
+    static List<Transaction> transactions(int rows) {
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (long x = 1; x <= rows; x++) {
+            String category = CATEGORIES[(int) (x % CATEGORIES.length)];
+            Transaction transaction = new Transaction(category + " payment " + (x % 500), category,
+                    LAST_DATE.minusDays((x * 7919) % 730), Money.ofCents(100 + (x * 104729) % 50000),
+                    "Income".equals(category) ? "INCOME" : "EXPENSE");
+            transaction.setId(x);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private static String categoryByIndex() {
+        StringBuilder sql = new StringBuilder("CASE MOD(r.X, ").append(CATEGORIES.length).append(')');
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            sql.append(" WHEN ").append(i).append(" THEN '").append(CATEGORIES[i].replace("'", "''")).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.moneymanager.benchmarks;
+
+import com.moneymanager.repository.TypeTotal;
+import com.moneymanager.service.RollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Map;
+
+public class RollupServiceBenchmark extends LedgerBenchmark {
+
+    private RollupService rollupService;
+
+    @Override
+    protected void setUp() {
+        rollupService = context.getBean(RollupService.class);
+    }
+
+    // All-time income and expense totals, both read from one rollup query
+    @Benchmark
+    public Map<String, TypeTotal> getTotalsByType() {
+        return rollupService.getTotalsByType();
+    }
+}
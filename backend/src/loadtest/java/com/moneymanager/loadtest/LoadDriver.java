@@ -0,0 +1,228 @@
+package com.moneymanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of API calls against a running instance and reports
+ * throughput and the latency distribution of every operation. Each worker
+ * keeps its own histograms, merged at the end, so recording never contends.
+ *
+ * <p>With {@code --rate} the load is open: requests are due on a fixed
+ * schedule and latency is measured from when a request was due, not from
+ * when a stalled worker finally sent it, so a server pause shows up in the
+ * percentiles instead of being hidden by the driver slowing down. Without it
+ * every worker sends its next request as soon as the last one returns.
+ *
+ * <p>Options, all {@code --name=value}: base-url (http://localhost:8080),
+ * threads (8), duration and warmup in seconds (60, 10), rate in requests per
+ * second over all threads (0 for closed loop), seed (42), mix as
+ * operation=weight pairs, and out, the directory that receives an .hgrm
+ * percentile file per operation (target/loadtest).
+ */
+public final class LoadDriver {
+
+    static final String DEFAULT_MIX = "stats=25,transactions=15,recent=20,page=10,budgets=10," +
+            "unpaid-bills=10,add-transaction=8,add-bill=2";
+
+    // Microseconds, up to a minute
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String baseUrl;
+    private final int threads;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final double rate;
+    private final long seed;
+    private final Operation[] schedule;
+    private final Path out;
+    private final HttpClient client;
+
+    LoadDriver(Map<String, String> options) {
+        baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "60")));
+        warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "10")));
+        rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        schedule = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        out = Paths.get(options.getOrDefault("out", "target/loadtest"));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(parseOptions(args)).run();
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /** Runs the load, prints the report and returns the totals over all operations. */
+    Stats run() throws Exception {
+        System.out.printf("Driving %s with %d threads for %d s after %d s warmup, %s%n", baseUrl, threads,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                rate > 0 ? "open loop at " + rate + " req/s" : "closed loop");
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i, start);
+            worker.thread.start();
+            workers.add(worker);
+        }
+        Map<Operation, Stats> totals = new EnumMap<>(Operation.class);
+        for (Worker worker : workers) {
+            worker.thread.join();
+            worker.stats.forEach((operation, stats) ->
+                    totals.computeIfAbsent(operation, key -> new Stats()).add(stats));
+        }
+        return report(totals);
+    }
+
+    double durationSeconds() {
+        return durationNanos / 1e9;
+    }
+
+    private Stats report(Map<Operation, Stats> totals) throws IOException {
+        Files.createDirectories(out);
+        double seconds = durationSeconds();
+        Stats all = new Stats();
+        System.out.printf("%n%-32s %9s %7s %9s %9s %9s %9s %9s %9s%n", "operation", "requests", "errors",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, Stats> entry : totals.entrySet()) {
+            Stats stats = entry.getValue();
+            print(entry.getKey().label, stats, seconds);
+            all.add(stats);
+            try (PrintStream file = new PrintStream(out.resolve(entry.getKey().key() + ".hgrm").toFile())) {
+                stats.latency.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+        print("all", all, seconds);
+        System.out.printf("%nPercentile distributions (ms) written to %s%n", out.toAbsolutePath());
+        return all;
+    }
+
+    private static void print(String label, Stats stats, double seconds) {
+        Histogram latency = stats.latency;
+        System.out.printf("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label,
+                latency.getTotalCount(), stats.errors, latency.getTotalCount() / seconds,
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // Expands the weights into a table indexed by a uniform draw
+    private static Operation[] parseMix(String mix) {
+        List<Operation> schedule = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in mix but got " + entry);
+            }
+            Operation operation = Operation.forKey(parts[0].trim());
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+                schedule.add(operation);
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight");
+        }
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private final class Worker implements Runnable {
+        final Thread thread;
+        final SplittableRandom random;
+        final long start;
+        final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+        Worker(int index, long start) {
+            this.thread = new Thread(this, "load-driver-" + (index + 1));
+            this.random = new SplittableRandom(seed + index);
+            // Workers are offset within the interval so a fixed rate does not arrive in bursts
+            this.start = rate > 0 ? start + (long) (index * 1e9 / rate) : start;
+        }
+
+        @Override
+        public void run() {
+            long recordFrom = start + warmupNanos;
+            long end = recordFrom + durationNanos;
+            long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+            long due = start;
+            while (true) {
+                long now = System.nanoTime();
+                if (interval > 0) {
+                    if (due > now) {
+                        LockSupport.parkNanos(due - now);
+                        now = System.nanoTime();
+                    }
+                } else {
+                    due = now;
+                }
+                if (due >= end) {
+                    return;
+                }
+                Operation operation = schedule[random.nextInt(schedule.length)];
+                boolean ok;
+                try {
+                    HttpResponse<Void> response = client.send(operation.request(baseUrl, random).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    ok = response.statusCode() < 400;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (due >= recordFrom) {
+                    Stats operationStats = stats.computeIfAbsent(operation, key -> new Stats());
+                    if (ok) {
+                        operationStats.latency.recordValue(Math.min(HIGHEST_LATENCY,
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due)));
+                    } else {
+                        operationStats.errors++;
+                    }
+                }
+                due += interval;
+            }
+        }
+    }
+
+    static final class Stats {
+        final Histogram latency = new Histogram(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+        long errors;
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.moneymanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * The API calls the driver mixes, each building a request the way the
+ * frontend issues it. Reads that take a date range pick a random month of the
+ * last year, which is where a generated ledger has data.
+ */
+enum Operation {
+
+    STATS("GET /api/dashboard/stats") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return get(baseUrl + "/api/dashboard/stats");
+        }
+    },
+    TRANSACTIONS("GET /api/transactions?from&to") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            LocalDate from = LocalDate.now().minusDays(31 + random.nextInt(335));
+            return get(baseUrl + "/api/transactions?from=" + from + "&to=" + from.plusDays(30));
+        }
+    },
+    // Every row in one response; off in the default mix since it is only sensible on small data sets
+    ALL_TRANSACTIONS("GET /api/transactions") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return get(baseUrl + "/api/transactions");
+        }
+    },
+    RECENT("GET /api/transactions/recent") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return get(baseUrl + "/api/transactions/recent");
+        }
+    },
+    PAGE("GET /api/transactions/page") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return get(baseUrl + "/api/transactions/page?size=50");
+        }
+    },
+    BUDGETS("GET /api/budgets") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return get(baseUrl + "/api/budgets");
+        }
+    },
+    UNPAID_BILLS("GET /api/bills/unpaid") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return get(baseUrl + "/api/bills/unpaid");
+        }
+    },
+    ADD_TRANSACTION("POST /api/transactions") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            return post(baseUrl + "/api/transactions", "{\"description\":\"Load test " + category + "\"," +
+                    "\"category\":\"" + category + "\",\"date\":\"" + LocalDate.now() + "\"," +
+                    "\"amount\":\"" + cents(random, 100, 20000) + "\",\"type\":\"EXPENSE\"}");
+        }
+    },
+    ADD_BILL("POST /api/bills") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SplittableRandom random) {
+            return post(baseUrl + "/api/bills", "{\"description\":\"Load test bill\"," +
+                    "\"category\":\"Bills & Utilities\",\"dueDate\":\"" + LocalDate.now().plusDays(1 + random.nextInt(60)) +
+                    "\",\"amount\":\"" + cents(random, 1000, 50000) + "\",\"isPaid\":false}");
+        }
+    };
+
+    private static final String[] CATEGORIES = {"Food & Dining", "Shopping", "Transportation", "Entertainment"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, SplittableRandom random);
+
+    /** Name used in --mix, e.g. unpaid-bills for UNPAID_BILLS. */
+    String key() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    static Operation forKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key().equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).GET();
+    }
+
+    private static HttpRequest.Builder post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private static String cents(SplittableRandom random, int min, int max) {
+        int cents = min + random.nextInt(max - min);
+        return cents / 100 + "." + String.format("%02d", cents % 100);
+    }
+}
@@ -0,0 +1,118 @@
+package com.moneymanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares platform-thread and virtual-thread request execution. The packaged
+ * jar is started once per mode with the same synthetic ledger, the same load
+ * is driven against each, and throughput and tail latency are printed side by
+ * side. High driver concurrency (default 400 connections, twice Tomcat's
+ * default worker count) is what separates the modes: with platform threads
+ * the surplus queues for a worker, with virtual threads it queues for a
+ * connection permit.
+ *
+ * <p>Options besides the {@link LoadDriver} ones: java, the launcher for the
+ * application (default: this JVM; virtual threads need Java 21), jar
+ * (target/money-manager-1.0.0.jar), port (18080), transactions in the
+ * generated ledger (100000) and heap (-Xmx2g).
+ */
+public final class ThreadModeBenchmark {
+
+    private static final String[] MODES = {"platform", "virtual"};
+    private static final long STARTUP_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadDriver.parseOptions(args);
+        String java = options.getOrDefault("java",
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String jar = options.getOrDefault("jar", "target/money-manager-1.0.0.jar");
+        String port = options.getOrDefault("port", "18080");
+        String transactions = options.getOrDefault("transactions", "100000");
+        String heap = options.getOrDefault("heap", "-Xmx2g");
+        Path out = Paths.get(options.getOrDefault("out", "target/loadtest"));
+        Files.createDirectories(out);
+
+        Map<String, LoadDriver.Stats> results = new LinkedHashMap<>();
+        double seconds = 0;
+        for (String mode : MODES) {
+            File log = out.resolve("app-" + mode + ".log").toFile();
+            List<String> command = new ArrayList<>(List.of(java, heap, "-jar", jar,
+                    "--server.port=" + port,
+                    "--moneymanager.threads.virtual=" + "virtual".equals(mode),
+                    "--moneymanager.dataset.transactions=" + transactions,
+                    "--moneymanager.dataset.bills=" + Math.max(1, Long.parseLong(transactions) / 500)));
+            System.out.printf("%n=== %s threads: starting %s%n", mode, String.join(" ", command));
+            Process app = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+            try {
+                awaitReady(app, "http://localhost:" + port + "/api/settings");
+                // Shows whether the mode took effect or fell back on an older JVM
+                try (Stream<String> lines = Files.lines(log.toPath())) {
+                    lines.filter(line -> line.contains("virtual threads")).forEach(System.out::println);
+                }
+
+                Map<String, String> driverOptions = new LinkedHashMap<>(options);
+                driverOptions.put("base-url", "http://localhost:" + port);
+                driverOptions.put("out", out.resolve(mode).toString());
+                driverOptions.putIfAbsent("threads", "400");
+                LoadDriver driver = new LoadDriver(driverOptions);
+                results.put(mode, driver.run());
+                seconds = driver.durationSeconds();
+            } finally {
+                app.destroy();
+                if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                    app.destroyForcibly().waitFor();
+                }
+            }
+        }
+
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s%n", "threads", "requests", "errors",
+                "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, LoadDriver.Stats> entry : results.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    latency.getTotalCount(), entry.getValue().errors, latency.getTotalCount() / seconds,
+                    latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0);
+        }
+    }
+
+    private static void awaitReady(Process app, String url) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("The application exited with status " + app.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("The application did not start within " + STARTUP_TIMEOUT_MILLIS + " ms");
+    }
+}
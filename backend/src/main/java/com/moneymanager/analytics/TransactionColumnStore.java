@@ -0,0 +1,310 @@
+package com.moneymanager.analytics;
+
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.repository.TransactionRepository;
+import com.moneymanager.service.CategoryCache;
+import com.moneymanager.util.LongIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented, in-memory copy of the transactions table used by the
+ * analytics endpoints. Every attribute lives in its own primitive array so a
+ * scan touches only the columns it needs and never allocates per row.
+ */
+@Component
+public class TransactionColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionColumnStore.class);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Row-aligned columns
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private int[] months = new int[INITIAL_CAPACITY]; // year * 12 + (month - 1)
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY]; // ids from the categories table
+    private long[] expenseBits = new long[INITIAL_CAPACITY / 64];
+    private int rowCount;
+
+    private final LongIntHashMap rowById = new LongIntHashMap(INITIAL_CAPACITY);
+    private int maxCategoryId;
+
+    /** Called by ProjectionLoader before the web server starts. */
+    public void load() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> {
+            try (Stream<Transaction> stream = transactionRepository.streamAllByOrderByDateDescIdDesc()) {
+                stream.forEach(transaction -> {
+                    append(transaction);
+                    entityManager.detach(transaction);
+                });
+            }
+        });
+        log.info("Loaded {} transactions into the analytics column store in {} ms",
+                rowCount, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        for (Transaction transaction : event.getRemoved()) {
+            remove(transaction.getId());
+        }
+        for (Transaction transaction : event.getAdded()) {
+            append(transaction);
+        }
+    }
+
+    public void append(Transaction transaction) {
+        // Resolve the category outside the lock; it may need a database round trip
+        int categoryId = categoryCache.idOf(transaction.getCategory());
+        lock.writeLock().lock();
+        try {
+            // A row that is already present is ignored, so replaying a change is harmless
+            if (rowById.get(transaction.getId()) != LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            ensureCapacity(rowCount + 1);
+            int row = rowCount++;
+            int epochDay = (int) transaction.getDate().toEpochDay();
+            ids[row] = transaction.getId();
+            epochDays[row] = epochDay;
+            months[row] = transaction.getDate().getYear() * 12 + transaction.getDate().getMonthValue() - 1;
+            amountCents[row] = transaction.getAmount().getCents();
+            categoryIds[row] = categoryId;
+            maxCategoryId = Math.max(maxCategoryId, categoryId);
+            if ("EXPENSE".equals(transaction.getType())) {
+                expenseBits[row >>> 6] |= 1L << row;
+            }
+            rowById.put(transaction.getId(), row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a row by moving the last row into its slot, so scans stay dense. */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.remove(id);
+            if (row == LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            int last = --rowCount;
+            if (row != last) {
+                ids[row] = ids[last];
+                epochDays[row] = epochDays[last];
+                months[row] = months[last];
+                amountCents[row] = amountCents[last];
+                categoryIds[row] = categoryIds[last];
+                if (isExpense(last)) {
+                    expenseBits[row >>> 6] |= 1L << row;
+                } else {
+                    expenseBits[row >>> 6] &= ~(1L << row);
+                }
+                rowById.put(ids[row], row);
+            }
+            expenseBits[last >>> 6] &= ~(1L << last);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Sums income and expense cents per calendar month over [fromDay, toDay].
+     * Slot i of the result covers month index {@code firstMonth + i}. Throws
+     * IllegalArgumentException if the months with data span more than
+     * {@code maxBuckets}.
+     */
+    public BucketSeries sumByMonth(int fromDay, int toDay, int maxBuckets) {
+        lock.readLock().lock();
+        try {
+            int firstMonth = Integer.MAX_VALUE;
+            int lastMonth = Integer.MIN_VALUE;
+            for (int row = 0; row < rowCount; row++) {
+                int day = epochDays[row];
+                if (day >= fromDay && day <= toDay) {
+                    firstMonth = Math.min(firstMonth, months[row]);
+                    lastMonth = Math.max(lastMonth, months[row]);
+                }
+            }
+            if (firstMonth > lastMonth) {
+                return BucketSeries.empty();
+            }
+            checkBuckets(lastMonth - firstMonth + 1, maxBuckets);
+            BucketSeries series = new BucketSeries(firstMonth, lastMonth - firstMonth + 1);
+            scan(fromDay, toDay, row -> series.add(months[row] - series.first, isExpense(row), amountCents[row]));
+            return series;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums income and expense cents per ISO week (Monday start) over [fromDay, toDay].
+     * Slot i covers the week whose index is {@code firstWeek + i}; see {@link #weekOf(int)}.
+     * Throws IllegalArgumentException if the weeks with data span more than {@code maxBuckets}.
+     */
+    public BucketSeries sumByWeek(int fromDay, int toDay, int maxBuckets) {
+        lock.readLock().lock();
+        try {
+            int firstWeek = Integer.MAX_VALUE;
+            int lastWeek = Integer.MIN_VALUE;
+            for (int row = 0; row < rowCount; row++) {
+                int day = epochDays[row];
+                if (day >= fromDay && day <= toDay) {
+                    int week = weekOf(day);
+                    firstWeek = Math.min(firstWeek, week);
+                    lastWeek = Math.max(lastWeek, week);
+                }
+            }
+            if (firstWeek > lastWeek) {
+                return BucketSeries.empty();
+            }
+            checkBuckets(lastWeek - firstWeek + 1, maxBuckets);
+            BucketSeries series = new BucketSeries(firstWeek, lastWeek - firstWeek + 1);
+            scan(fromDay, toDay, row -> series.add(weekOf(epochDays[row]) - series.first, isExpense(row), amountCents[row]));
+            return series;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums cents and counts per category id for one type over [fromDay, toDay].
+     * Returns parallel arrays indexed by category id.
+     */
+    public CategoryTotals sumByCategory(boolean expense, int fromDay, int toDay) {
+        lock.readLock().lock();
+        try {
+            long[] cents = new long[maxCategoryId + 1];
+            long[] counts = new long[maxCategoryId + 1];
+            scan(fromDay, toDay, row -> {
+                if (isExpense(row) == expense) {
+                    cents[categoryIds[row]] += amountCents[row];
+                    counts[categoryIds[row]]++;
+                }
+            });
+            return new CategoryTotals(cents, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Week index counted in whole weeks from the Monday before the epoch. */
+    public static int weekOf(int epochDay) {
+        // 1970-01-01 was a Thursday, so shifting by 3 aligns weeks on Monday
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    public static int firstDayOfWeek(int week) {
+        return week * 7 - 3;
+    }
+
+    // Checked before the series is allocated, since an outlier date can stretch the span arbitrarily
+    private static void checkBuckets(int buckets, int maxBuckets) {
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Range spans more than " + maxBuckets +
+                    " buckets; narrow it or use a coarser bucket");
+        }
+    }
+
+    // Caller must hold the read lock
+    private void scan(int fromDay, int toDay, IntConsumer visitor) {
+        for (int row = 0; row < rowCount; row++) {
+            int day = epochDays[row];
+            if (day >= fromDay && day <= toDay) {
+                visitor.accept(row);
+            }
+        }
+    }
+
+    private boolean isExpense(int row) {
+        return (expenseBits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        months = Arrays.copyOf(months, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        expenseBits = Arrays.copyOf(expenseBits, (capacity + 63) / 64);
+    }
+
+    /** Income/expense cents per contiguous bucket. */
+    public static class BucketSeries {
+        public final int first;
+        public final long[] incomeCents;
+        public final long[] expenseCents;
+        public final long[] counts;
+
+        BucketSeries(int first, int buckets) {
+            this.first = first;
+            this.incomeCents = new long[buckets];
+            this.expenseCents = new long[buckets];
+            this.counts = new long[buckets];
+        }
+
+        static BucketSeries empty() {
+            return new BucketSeries(0, 0);
+        }
+
+        void add(int slot, boolean expense, long cents) {
+            if (expense) {
+                expenseCents[slot] += cents;
+            } else {
+                incomeCents[slot] += cents;
+            }
+            counts[slot]++;
+        }
+    }
+
+    /** Cents and counts indexed by category id. */
+    public static class CategoryTotals {
+        public final long[] cents;
+        public final long[] counts;
+
+        CategoryTotals(long[] cents, long[] counts) {
+            this.cents = cents;
+            this.counts = counts;
+        }
+    }
+}
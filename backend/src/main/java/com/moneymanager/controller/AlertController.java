@@ -0,0 +1,36 @@
+package com.moneymanager.controller;
+
+import com.moneymanager.dto.BudgetAlertDTO;
+import com.moneymanager.service.BudgetAlertService;
+import com.moneymanager.service.LedgerStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AlertController {
+
+    @Autowired
+    private BudgetAlertService budgetAlertService;
+
+    @Autowired
+    private LedgerStreamService ledgerStreamService;
+
+    @GetMapping
+    public ResponseEntity<List<BudgetAlertDTO>> getRecentAlerts() {
+        return ResponseEntity.ok(budgetAlertService.getRecentAlerts());
+    }
+
+    // The budget-alert events of /api/stream on their own
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return ledgerStreamService.subscribe(lastEventId, Set.of(LedgerStreamService.EVENT_BUDGET_ALERT));
+    }
+}
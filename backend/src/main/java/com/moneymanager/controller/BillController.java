@@ -2,47 +2,90 @@ package com.moneymanager.controller;
 
 import com.moneymanager.model.Bill;
 import com.moneymanager.service.BillService;
+import com.moneymanager.service.TableVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bills")
 @CrossOrigin(origins = "http://localhost:3000")
 public class BillController {
 
+    private static final Logger log = LoggerFactory.getLogger(BillController.class);
+
     @Autowired
     private BillService billService;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     @GetMapping
-    public ResponseEntity<List<Bill>> getAllBills() {
-        return ResponseEntity.ok(billService.getAllBills());
+    public ResponseEntity<List<Bill>> getAllBills(WebRequest request) {
+        return ConditionalGet.ifChanged(request, tableVersions.etag(TableVersions.BILLS), billService::getAllBills);
     }
 
     @GetMapping("/unpaid")
-    public ResponseEntity<List<Bill>> getUnpaidBills() {
-        return ResponseEntity.ok(billService.getUnpaidBills());
+    public ResponseEntity<List<Bill>> getUnpaidBills(WebRequest request) {
+        return ConditionalGet.ifChanged(request, tableVersions.etag(TableVersions.BILLS), billService::getUnpaidBills);
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity<?> getUpcomingBills(@RequestParam(defaultValue = "7") int days) {
+        if (days < 0 || days > 366) {
+            return ResponseEntity.badRequest().body(Map.of("message", "days must be between 0 and 366"));
+        }
+        return ResponseEntity.ok(billService.getUpcomingBills(days));
+    }
+
+    @GetMapping("/occurrences")
+    public ResponseEntity<?> getOccurrences(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= BillService.MAX_OCCURRENCE_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "from must not be after to and the range must span at most " + BillService.MAX_OCCURRENCE_DAYS + " days"));
+        }
+        return ResponseEntity.ok(billService.getOccurrences(from, to));
     }
 
     @PostMapping
-    public ResponseEntity<Bill> createBill(@RequestBody Bill bill) {
-        System.out.println("Received request to create bill: " + bill);
+    public ResponseEntity<?> createBill(@RequestBody Bill bill) {
+        log.debug("Received request to create bill: {}", bill);
+        String invalid = BillService.recurrenceError(bill);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", invalid));
+        }
         try {
             Bill savedBill = billService.saveBill(bill);
-            System.out.println("Successfully saved bill: " + savedBill);
+            log.debug("Saved bill {}", savedBill.getId());
             return ResponseEntity.ok(savedBill);
-        } catch (Exception e) {
-            System.err.println("Error creating bill: " + e.getMessage());
-            e.printStackTrace();
+        } catch (RuntimeException e) {
+            log.error("Error creating bill: {}", e.getMessage(), e);
             throw e;
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Bill> updateBill(@PathVariable Long id, @RequestBody Bill bill) {
-        Bill updatedBill = billService.updateBill(id, bill);
+    public ResponseEntity<?> updateBill(@PathVariable Long id, @RequestBody Bill bill) {
+        String invalid = BillService.recurrenceError(bill);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", invalid));
+        }
+        Bill updatedBill;
+        try {
+            updatedBill = billService.updateBill(id, bill);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
         if (updatedBill != null) {
             return ResponseEntity.ok(updatedBill);
         }
@@ -63,4 +106,63 @@ public class BillController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    // Occurrences of a recurring bill are addressed by series id and occurrence date
+    @PutMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<Bill> updateOccurrence(@PathVariable Long id,
+                                                 @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                 @RequestBody Bill bill) {
+        Bill updatedBill = billService.updateOccurrence(id, date, bill);
+        if (updatedBill != null) {
+            return ResponseEntity.ok(updatedBill);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @PatchMapping("/{id}/occurrences/{date}/toggle-status")
+    public ResponseEntity<Bill> toggleOccurrenceStatus(@PathVariable Long id,
+                                                       @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Bill updatedBill = billService.toggleOccurrenceStatus(id, date);
+        if (updatedBill != null) {
+            return ResponseEntity.ok(updatedBill);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // Batch endpoints run each request in one database transaction and report per item
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBills(@RequestBody List<Bill> bills) {
+        try {
+            return ResponseEntity.ok(billService.createBills(bills));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateBills(@RequestBody List<Bill> bills) {
+        try {
+            return ResponseEntity.ok(billService.updateBills(bills));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<?> deleteBills(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(billService.deleteBills(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/batch/toggle-status")
+    public ResponseEntity<?> toggleBillStatuses(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(billService.toggleBillStatuses(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
@@ -1,11 +1,16 @@
 package com.moneymanager.controller;
 
 import com.moneymanager.model.Budget;
+import com.moneymanager.service.BudgetReconciliationService;
 import com.moneymanager.service.BudgetService;
+import com.moneymanager.service.TableVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/budgets")
@@ -15,10 +20,15 @@ public class BudgetController {
     @Autowired
     private BudgetService budgetService;
 
+    @Autowired
+    private BudgetReconciliationService reconciliationService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
     @GetMapping
-    public ResponseEntity<List<Budget>> getAllBudgets() {
-        List<Budget> budgets = budgetService.getAllBudgets();
-        return ResponseEntity.ok(budgets);
+    public ResponseEntity<List<Budget>> getAllBudgets(WebRequest request) {
+        return ConditionalGet.ifChanged(request, tableVersions.etag(TableVersions.BUDGETS), budgetService::getAllBudgets);
     }
 
     @PostMapping
@@ -27,6 +37,15 @@ public class BudgetController {
         return ResponseEntity.ok(savedBudget);
     }
 
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcileBudgets() {
+        try {
+            return ResponseEntity.ok(reconciliationService.reconcile());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Budget> updateBudget(@PathVariable Long id, @RequestBody Budget budget) {
         Budget updatedBudget = budgetService.updateBudget(id, budget);
@@ -41,4 +60,32 @@ public class BudgetController {
         budgetService.deleteBudget(id);
         return ResponseEntity.ok().build();
     }
+
+    // Batch endpoints run each request in one database transaction and report per item
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBudgets(@RequestBody List<Budget> budgets) {
+        try {
+            return ResponseEntity.ok(budgetService.createBudgets(budgets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateBudgets(@RequestBody List<Budget> budgets) {
+        try {
+            return ResponseEntity.ok(budgetService.updateBudgets(budgets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<?> deleteBudgets(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(budgetService.deleteBudgets(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.moneymanager.controller;
+
+import com.moneymanager.dto.CacheStatsDTO;
+import com.moneymanager.service.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CacheController {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsDTO> getStats() {
+        return ResponseEntity.ok(cacheService.getStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        cacheService.evictAll();
+        return ResponseEntity.ok().build();
+    }
+}
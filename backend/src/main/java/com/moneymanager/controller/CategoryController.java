@@ -0,0 +1,31 @@
+package com.moneymanager.controller;
+
+import com.moneymanager.service.CategoryCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/categories")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CategoryController {
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getCategories() {
+        List<String> names = categoryCache.names();
+        List<Map<String, Object>> categories = new ArrayList<>();
+        for (int id = 0; id < names.size(); id++) {
+            if (names.get(id) != null) {
+                categories.add(Map.of("id", id, "name", names.get(id)));
+            }
+        }
+        return ResponseEntity.ok(categories);
+    }
+}
@@ -1,10 +1,13 @@
 package com.moneymanager.controller;
 
+import com.moneymanager.dto.DashboardBundleDTO;
 import com.moneymanager.dto.DashboardStatsDTO;
 import com.moneymanager.service.DashboardService;
+import com.moneymanager.service.RollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -14,9 +17,23 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
     
+    @Autowired
+    private RollupService rollupService;
+    
     @GetMapping("/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
         DashboardStatsDTO stats = dashboardService.getDashboardStats();
         return ResponseEntity.ok(stats);
     }
+    
+    @GetMapping("/bundle")
+    public ResponseEntity<DashboardBundleDTO> getDashboardBundle() {
+        return ResponseEntity.ok(dashboardService.getDashboardBundle());
+    }
+    
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        int rows = rollupService.rebuild();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
 }
@@ -2,9 +2,11 @@ package com.moneymanager.controller;
 
 import com.moneymanager.model.Settings;
 import com.moneymanager.service.SettingsService;
+import com.moneymanager.service.TableVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/settings")
@@ -14,9 +16,12 @@ public class SettingsController {
     @Autowired
     private SettingsService settingsService;
 
+    @Autowired
+    private TableVersions tableVersions;
+
     @GetMapping
-    public ResponseEntity<Settings> getSettings() {
-        return ResponseEntity.ok(settingsService.getSettings());
+    public ResponseEntity<Settings> getSettings(WebRequest request) {
+        return ConditionalGet.ifChanged(request, tableVersions.etag(TableVersions.SETTINGS), settingsService::getSettings);
     }
 
     @GetMapping("/test")
@@ -0,0 +1,23 @@
+package com.moneymanager.controller;
+
+import com.moneymanager.service.LedgerStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StreamController {
+
+    @Autowired
+    private LedgerStreamService ledgerStreamService;
+
+    // EventSource sends Last-Event-ID on reconnect; "since" lets a client resume on its first connect
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(required = false) String since) {
+        return ledgerStreamService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
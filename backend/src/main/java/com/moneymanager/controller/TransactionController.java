@@ -1,11 +1,32 @@
 package com.moneymanager.controller;
 
+import com.moneymanager.dto.ImportResultDTO;
+import com.moneymanager.dto.TimeBucketDTO;
+import com.moneymanager.dto.TransactionPageDTO;
+import com.moneymanager.dto.TransactionSearchResultDTO;
 import com.moneymanager.model.Transaction;
+import com.moneymanager.service.TransactionExportService;
+import com.moneymanager.service.TableVersions;
+import com.moneymanager.service.TransactionImportService;
 import com.moneymanager.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -15,16 +36,126 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
     
+    @Autowired
+    private TransactionImportService transactionImportService;
+    
+    @Autowired
+    private TransactionExportService transactionExportService;
+    
+    @Autowired
+    private TableVersions tableVersions;
+    
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<?> getAllTransactions(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                WebRequest request) {
+        String etag = tableVersions.etag(TableVersions.TRANSACTIONS);
+        if (from == null && to == null) {
+            return ConditionalGet.ifChanged(request, etag, transactionService::getAllTransactions);
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "from and to must both be set and from must not be after to"));
+        }
+        try {
+            return ConditionalGet.ifChanged(request, etag, () -> transactionService.getTransactionsBetween(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/buckets")
+    public ResponseEntity<?> getTimeBuckets(@RequestParam(defaultValue = TransactionService.GRANULARITY_MONTH) String granularity,
+                                            @RequestParam(defaultValue = "type") String groupBy,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!"type".equals(groupBy) && !"category".equals(groupBy)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "groupBy must be type or category"));
+        }
+        try {
+            List<TimeBucketDTO> buckets = transactionService.getTimeBuckets(granularity, "category".equals(groupBy), from, to);
+            return ResponseEntity.ok(buckets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<?> getTransactionPage(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        try {
+            TransactionPageDTO page = transactionService.getTransactionPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTransactions(@RequestParam(defaultValue = "") String q,
+                                                @RequestParam(required = false) String category,
+                                                @RequestParam(required = false) String type,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(required = false) Integer size) {
+        try {
+            TransactionSearchResultDTO result = transactionService.searchTransactions(q, category, type, from, to, page, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
     
     @GetMapping("/recent")
-    public ResponseEntity<List<Transaction>> getRecentTransactions() {
-        List<Transaction> recentTransactions = transactionService.getRecentTransactions(10);
-        return ResponseEntity.ok(recentTransactions);
+    public ResponseEntity<List<Transaction>> getRecentTransactions(WebRequest request) {
+        return ConditionalGet.ifChanged(request, tableVersions.etag(TableVersions.TRANSACTIONS),
+                () -> transactionService.getRecentTransactions(10));
+    }
+    
+    @PostMapping("/import")
+    public ResponseEntity<?> importTransactions(HttpServletRequest request,
+                                                @RequestParam(required = false) String format) throws IOException {
+        String resolvedFormat = format;
+        if (resolvedFormat == null) {
+            String contentType = request.getContentType();
+            boolean json = contentType != null && (contentType.contains("ndjson") || contentType.contains("json"));
+            resolvedFormat = json ? TransactionImportService.FORMAT_NDJSON : TransactionImportService.FORMAT_CSV;
+        }
+        if (!TransactionImportService.FORMAT_CSV.equals(resolvedFormat)
+                && !TransactionImportService.FORMAT_NDJSON.equals(resolvedFormat)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "format must be csv or ndjson"));
+        }
+        // Read the raw body stream so the upload is never buffered in full
+        ImportResultDTO result = transactionImportService.importTransactions(request.getInputStream(), resolvedFormat);
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "csv") String format,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!TransactionExportService.FORMAT_CSV.equals(format)
+                && !TransactionExportService.FORMAT_NDJSON.equals(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+        boolean csv = TransactionExportService.FORMAT_CSV.equals(format);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                transactionExportService.exportTransactions(gzipOut, format);
+                gzipOut.finish();
+            } else {
+                transactionExportService.exportTransactions(out, format);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                                 : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + (csv ? "csv" : "ndjson") + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
     
     @PostMapping
@@ -32,4 +163,53 @@ public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction tr
     Transaction savedTransaction = transactionService.saveTransaction(transaction);
     return ResponseEntity.ok(savedTransaction);
 }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateTransaction(@PathVariable Long id, @RequestBody Transaction transaction) {
+        try {
+            Transaction updatedTransaction = transactionService.updateTransaction(id, transaction);
+            if (updatedTransaction != null) {
+                return ResponseEntity.ok(updatedTransaction);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
+        if (transactionService.deleteTransaction(id)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    // Batch endpoints run each request in one database transaction and report per item
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTransactions(@RequestBody List<Transaction> transactions) {
+        try {
+            return ResponseEntity.ok(transactionService.createTransactions(transactions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateTransactions(@RequestBody List<Transaction> transactions) {
+        try {
+            return ResponseEntity.ok(transactionService.updateTransactions(transactions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/batch/delete")
+    public ResponseEntity<?> deleteTransactions(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(transactionService.deleteTransactions(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
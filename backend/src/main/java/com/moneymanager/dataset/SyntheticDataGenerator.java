@@ -0,0 +1,306 @@
+package com.moneymanager.dataset;
+
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Recurrence;
+import com.moneymanager.service.BillScheduler;
+import com.moneymanager.service.CategoryCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with a synthetic ledger for load and capacity testing:
+ * users, transactions, budgets sized against what was actually spent, and
+ * bills around today. Off unless a count is configured. Output depends only
+ * on the seed, the counts and the end date, and every kind of row draws from
+ * its own generator, so changing the number of bills leaves the transactions
+ * unchanged. Rows go in with batched JDBC inserts before the web server
+ * starts and the in-memory projections load, so rollups, the column store and the search index are
+ * built from the generated data.
+ */
+@Component
+public class SyntheticDataGenerator implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final TransactionProfile[] TRANSACTION_PROFILES = {
+        new TransactionProfile("Food & Dining", "EXPENSE", 28, 400, 15000,
+                "Grocery Shopping", "Restaurant Dinner", "Coffee Shop", "Lunch Takeaway", "Food Delivery", "Bakery"),
+        new TransactionProfile("Shopping", "EXPENSE", 14, 999, 40000,
+                "Amazon Purchase Online Shopping", "Clothing Purchase", "Electronics Store", "Home Supplies", "Bookstore"),
+        new TransactionProfile("Transportation", "EXPENSE", 16, 250, 9000,
+                "Gas Station Fuel", "Uber Ride", "Train Ticket", "Parking Fee", "Bus Pass"),
+        new TransactionProfile("Bills & Utilities", "EXPENSE", 8, 1500, 30000,
+                "Electricity Bill", "Internet Bill Monthly Subscription", "Water Bill", "Mobile Phone Plan"),
+        new TransactionProfile("Entertainment", "EXPENSE", 10, 500, 12000,
+                "Netflix Subscription", "Cinema Tickets", "Concert Tickets", "Music Streaming", "Video Game"),
+        new TransactionProfile("Health", "EXPENSE", 5, 1000, 25000,
+                "Pharmacy", "Doctor Visit", "Gym Membership", "Dental Checkup"),
+        new TransactionProfile("Travel", "EXPENSE", 3, 5000, 150000,
+                "Flight Booking", "Hotel Stay", "Car Rental"),
+        new TransactionProfile("Income", "INCOME", 3, 50000, 600000,
+                "Monthly Salary Company Inc.", "Freelance Project Payment", "Bonus Payment", "Tax Refund"),
+        new TransactionProfile("Investment", "INCOME", 3, 1000, 80000,
+                "Dividend Payout", "Interest Earned", "Stock Sale")
+    };
+
+    private static final BillProfile[] BILL_PROFILES = {
+        new BillProfile("Electricity Bill", "Bills & Utilities", 4000, 20000),
+        new BillProfile("Water Bill", "Bills & Utilities", 2000, 8000),
+        new BillProfile("Internet Subscription", "Bills & Utilities", 3999, 9999),
+        new BillProfile("Rent", "Bills & Utilities", 80000, 250000),
+        new BillProfile("Car Insurance", "Transportation", 6000, 25000),
+        new BillProfile("Credit Card Payment", "Shopping", 10000, 150000),
+        new BillProfile("Gym Membership", "Health", 2500, 6000),
+        new BillProfile("Streaming Service", "Entertainment", 999, 2499)
+    };
+
+    private static final String[] FIRST_NAMES = {"Amal", "Nimali", "Kasun", "Dilani", "Ruwan", "Sachini",
+            "James", "Maria", "Chen", "Aisha", "Lukas", "Sofia", "Ravi", "Yuki", "Omar", "Elena"};
+    private static final String[] LAST_NAMES = {"Perera", "Fernando", "Silva", "Jayasinghe", "Smith",
+            "Garcia", "Wang", "Khan", "Muller", "Rossi", "Patel", "Tanaka", "Haddad", "Ivanova"};
+
+    // Share of recurring bills and of past one-off bills that were paid, in percent
+    private static final int RECURRING_BILL_PERCENT = 15;
+    private static final int PAID_PAST_BILL_PERCENT = 90;
+    private static final int BILL_SPREAD_DAYS = 60;
+
+    @Value("${moneymanager.dataset.seed:42}")
+    private long seed;
+
+    @Value("${moneymanager.dataset.users:0}")
+    private int users;
+
+    @Value("${moneymanager.dataset.transactions:0}")
+    private long transactions;
+
+    @Value("${moneymanager.dataset.bills:0}")
+    private int bills;
+
+    @Value("${moneymanager.dataset.months:24}")
+    private int months;
+
+    // Empty means today; pin it to make the dates reproducible across days
+    @Value("${moneymanager.dataset.end-date:}")
+    private String endDate;
+
+    @Value("${moneymanager.dataset.batch-size:5000}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    // Runs once the schema and data.sql are in place but before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (users <= 0 && transactions <= 0 && bills <= 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        LocalDate end = endDate.isEmpty() ? LocalDate.now() : LocalDate.parse(endDate);
+        generateUsers(new SplittableRandom(seed));
+        generateTransactions(new SplittableRandom(seed + 1), end);
+        if (transactions > 0) {
+            generateBudgets(new SplittableRandom(seed + 2));
+        }
+        generateBills(new SplittableRandom(seed + 3), end);
+        log.info("Generated {} users, {} transactions and {} bills (seed {}) in {} ms",
+                users, transactions, bills, seed, System.currentTimeMillis() - start);
+    }
+
+    private void generateUsers(SplittableRandom random) {
+        insertInBatches("INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?)",
+                users, (ps, index) -> {
+                    String first = pick(random, FIRST_NAMES);
+                    String last = pick(random, LAST_NAMES);
+                    // The index keeps names unique however often a pair repeats
+                    String username = (first + "." + last).toLowerCase() + (index + 1);
+                    ps.setString(1, username);
+                    ps.setString(2, "password123");
+                    ps.setString(3, username + "@example.com");
+                    ps.setString(4, first + " " + last);
+                });
+    }
+
+    private void generateTransactions(SplittableRandom random, LocalDate end) {
+        int[] categoryIds = new int[TRANSACTION_PROFILES.length];
+        int totalWeight = 0;
+        for (int i = 0; i < TRANSACTION_PROFILES.length; i++) {
+            categoryIds[i] = categoryCache.idOf(TRANSACTION_PROFILES[i].category);
+            totalWeight += TRANSACTION_PROFILES[i].weight;
+        }
+        LocalDate first = end.minusMonths(months).plusDays(1);
+        int days = (int) ChronoUnit.DAYS.between(first, end) + 1;
+        int weights = totalWeight;
+        insertInBatches("INSERT INTO transactions (id, description, category_id, date, amount_cents, type) " +
+                "VALUES (NEXT VALUE FOR transactions_seq, ?, ?, ?, ?, ?)", transactions, (ps, index) -> {
+                    int profileIndex = pickWeighted(random, weights);
+                    TransactionProfile profile = TRANSACTION_PROFILES[profileIndex];
+                    ps.setString(1, pick(random, profile.descriptions));
+                    ps.setInt(2, categoryIds[profileIndex]);
+                    // Chronological like a real ledger, which also keeps the date index appending
+                    ps.setDate(3, Date.valueOf(first.plusDays(index * days / transactions)));
+                    ps.setLong(4, logUniform(random, profile.minCents, profile.maxCents));
+                    ps.setString(5, profile.type);
+                });
+    }
+
+    // One budget per expense category, allocated 80-140% of what was spent so some run over
+    private void generateBudgets(SplittableRandom random) {
+        Map<Integer, Long> spentByCategory = new HashMap<>();
+        jdbcTemplate.query("SELECT category_id, SUM(amount_cents) FROM transactions WHERE type = 'EXPENSE' " +
+                "GROUP BY category_id", rs -> {
+            spentByCategory.put(rs.getInt(1), rs.getLong(2));
+        });
+        for (TransactionProfile profile : TRANSACTION_PROFILES) {
+            if (!"EXPENSE".equals(profile.type)) {
+                continue;
+            }
+            int categoryId = categoryCache.idOf(profile.category);
+            long spent = spentByCategory.getOrDefault(categoryId, 0L);
+            // Whole tens of the currency, like a person would set it
+            long allocated = Math.max(1000, spent * (80 + random.nextInt(61)) / 100 / 1000 * 1000);
+            Object[] values = {allocated, spent, allocated - spent, Money.percent(spent, allocated), categoryId};
+            int updated = jdbcTemplate.update("UPDATE budgets SET allocated_cents = ?, spent_cents = ?, " +
+                    "remaining_cents = ?, percentage_spent = ? WHERE category_id = ?", values);
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO budgets (id, allocated_cents, spent_cents, remaining_cents, " +
+                        "percentage_spent, category_id) VALUES (NEXT VALUE FOR budgets_seq, ?, ?, ?, ?, ?)", values);
+            }
+        }
+    }
+
+    private void generateBills(SplittableRandom random, LocalDate end) {
+        int[] categoryIds = new int[BILL_PROFILES.length];
+        for (int i = 0; i < BILL_PROFILES.length; i++) {
+            categoryIds[i] = categoryCache.idOf(BILL_PROFILES[i].category);
+        }
+        LocalDate today = LocalDate.now();
+        insertInBatches("INSERT INTO bills (id, description, amount_cents, due_date, is_paid, recurrence, " +
+                "recurrence_interval, notified_stage, category_id) " +
+                "VALUES (NEXT VALUE FOR bills_seq, ?, ?, ?, ?, ?, ?, ?, ?)", bills, (ps, index) -> {
+                    int profileIndex = random.nextInt(BILL_PROFILES.length);
+                    BillProfile profile = BILL_PROFILES[profileIndex];
+                    LocalDate dueDate = end.plusDays(random.nextInt(2 * BILL_SPREAD_DAYS + 1) - BILL_SPREAD_DAYS);
+                    boolean recurring = random.nextInt(100) < RECURRING_BILL_PERCENT;
+                    // Drawn for every bill so the sequence does not depend on the current date
+                    boolean settled = random.nextInt(100) < PAID_PAST_BILL_PERCENT;
+                    boolean past = dueDate.isBefore(today);
+                    boolean paid = !recurring && past && settled;
+                    ps.setString(1, profile.description);
+                    ps.setLong(2, logUniform(random, profile.minCents, profile.maxCents));
+                    ps.setDate(3, Date.valueOf(dueDate));
+                    ps.setBoolean(4, paid);
+                    if (recurring) {
+                        ps.setString(5, Recurrence.MONTHLY.name());
+                        ps.setInt(6, 1);
+                    } else {
+                        ps.setNull(5, Types.VARCHAR);
+                        ps.setNull(6, Types.INTEGER);
+                    }
+                    // Overdue one-off bills count as already notified, so startup does not announce them all
+                    ps.setInt(7, !recurring && past ? BillScheduler.STAGE_OVERDUE : 0);
+                    ps.setInt(8, categoryIds[profileIndex]);
+                });
+    }
+
+    // Rows are produced in order, so the random sequence and therefore the data only depend on the seed
+    private void insertInBatches(String sql, long rows, RowWriter writer) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (long offset = 0; offset < rows; offset += batchSize) {
+            long base = offset;
+            int size = (int) Math.min(batchSize, rows - offset);
+            template.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    writer.write(ps, base + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            }));
+        }
+    }
+
+    private static int pickWeighted(SplittableRandom random, int totalWeight) {
+        int target = random.nextInt(totalWeight);
+        for (int i = 0; i < TRANSACTION_PROFILES.length; i++) {
+            target -= TRANSACTION_PROFILES[i].weight;
+            if (target < 0) {
+                return i;
+            }
+        }
+        return TRANSACTION_PROFILES.length - 1;
+    }
+
+    // Many small amounts and a long tail of large ones, like real spending
+    private static long logUniform(SplittableRandom random, long min, long max) {
+        return Math.round(min * Math.pow((double) max / min, random.nextDouble()));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, long index) throws SQLException;
+    }
+
+    private static final class TransactionProfile {
+        final String category;
+        final String type;
+        final int weight;
+        final long minCents;
+        final long maxCents;
+        final String[] descriptions;
+
+        TransactionProfile(String category, String type, int weight, long minCents, long maxCents, String... descriptions) {
+            this.category = category;
+            this.type = type;
+            this.weight = weight;
+            this.minCents = minCents;
+            this.maxCents = maxCents;
+            this.descriptions = descriptions;
+        }
+    }
+
+    private static final class BillProfile {
+        final String description;
+        final String category;
+        final long minCents;
+        final long maxCents;
+
+        BillProfile(String description, String category, long minCents, long maxCents) {
+            this.description = description;
+            this.category = category;
+            this.minCents = minCents;
+            this.maxCents = maxCents;
+        }
+    }
+}
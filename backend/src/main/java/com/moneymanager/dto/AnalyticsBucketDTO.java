@@ -0,0 +1,44 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+import java.time.LocalDate;
+
+public class AnalyticsBucketDTO {
+    private String period;
+    private LocalDate startDate;
+    private Money income;
+    private Money expense;
+    private Money net;
+    private long count;
+    
+    // Constructors
+    public AnalyticsBucketDTO() {}
+    
+    public AnalyticsBucketDTO(String period, LocalDate startDate, Money income, Money expense, long count) {
+        this.period = period;
+        this.startDate = startDate;
+        this.income = income;
+        this.expense = expense;
+        this.net = Money.ofCents(income.getCents() - expense.getCents());
+        this.count = count;
+    }
+    
+    // Getters and Setters
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public Money getIncome() { return income; }
+    public void setIncome(Money income) { this.income = income; }
+    
+    public Money getExpense() { return expense; }
+    public void setExpense(Money expense) { this.expense = expense; }
+    
+    public Money getNet() { return net; }
+    public void setNet(Money net) { this.net = net; }
+    
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,47 @@
+package com.moneymanager.dto;
+
+public class BatchItemResultDTO {
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_NOT_FOUND = "NOT_FOUND";
+    public static final String STATUS_INVALID = "INVALID";
+    
+    private int index;
+    private Long id;
+    private String status;
+    private String message;
+    
+    // Constructors
+    public BatchItemResultDTO() {}
+    
+    public BatchItemResultDTO(int index, Long id, String status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+    
+    public static BatchItemResultDTO ok(int index, Long id) {
+        return new BatchItemResultDTO(index, id, STATUS_OK, null);
+    }
+    
+    public static BatchItemResultDTO notFound(int index, Long id) {
+        return new BatchItemResultDTO(index, id, STATUS_NOT_FOUND, "Not found");
+    }
+    
+    public static BatchItemResultDTO invalid(int index, Long id, String message) {
+        return new BatchItemResultDTO(index, id, STATUS_INVALID, message);
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,35 @@
+package com.moneymanager.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class BatchResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResultDTO> results;
+    
+    // Constructors
+    public BatchResultDTO() {}
+    
+    public BatchResultDTO(List<BatchItemResultDTO> results) {
+        results.sort(Comparator.comparingInt(BatchItemResultDTO::getIndex));
+        for (BatchItemResultDTO result : results) {
+            if (BatchItemResultDTO.STATUS_OK.equals(result.getStatus())) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+        this.results = results;
+    }
+    
+    // Getters and Setters
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+    
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    
+    public List<BatchItemResultDTO> getResults() { return results; }
+    public void setResults(List<BatchItemResultDTO> results) { this.results = results; }
+}
@@ -0,0 +1,24 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Bill;
+
+/** A bill entering its reminder window or becoming overdue, as pushed on the ledger stream. */
+public class BillDueDTO {
+    private String kind;
+    private Bill bill;
+    
+    // Constructors
+    public BillDueDTO() {}
+    
+    public BillDueDTO(String kind, Bill bill) {
+        this.kind = kind;
+        this.bill = bill;
+    }
+    
+    // Getters and Setters
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    
+    public Bill getBill() { return bill; }
+    public void setBill(Bill bill) { this.bill = bill; }
+}
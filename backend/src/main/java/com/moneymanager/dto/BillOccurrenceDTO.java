@@ -0,0 +1,80 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Bill;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Recurrence;
+import java.time.LocalDate;
+
+public class BillOccurrenceDTO {
+    private Long id;
+    private Long seriesId;
+    private LocalDate occurrenceDate;
+    private String description;
+    private Money amount;
+    private LocalDate dueDate;
+    private Boolean isPaid;
+    private String category;
+    private Recurrence recurrence;
+    private boolean materialized;
+    
+    // Constructors
+    public BillOccurrenceDTO() {}
+    
+    public BillOccurrenceDTO(Long id, Long seriesId, LocalDate occurrenceDate, String description, Money amount,
+                             LocalDate dueDate, Boolean isPaid, String category, Recurrence recurrence,
+                             boolean materialized) {
+        this.id = id;
+        this.seriesId = seriesId;
+        this.occurrenceDate = occurrenceDate;
+        this.description = description;
+        this.amount = amount;
+        this.dueDate = dueDate;
+        this.isPaid = isPaid;
+        this.category = category;
+        this.recurrence = recurrence;
+        this.materialized = materialized;
+    }
+    
+    /** A stored bill: a one-off or a materialized occurrence of a series. */
+    public static BillOccurrenceDTO of(Bill bill, Recurrence recurrence) {
+        return new BillOccurrenceDTO(bill.getId(), bill.getSeriesId(), bill.getOccurrenceDate(), bill.getDescription(),
+                bill.getAmount(), bill.getDueDate(), bill.getIsPaid(), bill.getCategory(), recurrence, true);
+    }
+    
+    /** An occurrence of a series that has no row of its own. */
+    public static BillOccurrenceDTO virtual(Bill template, LocalDate date) {
+        return new BillOccurrenceDTO(null, template.getId(), date, template.getDescription(), template.getAmount(),
+                date, false, template.getCategory(), template.getRecurrence(), false);
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getSeriesId() { return seriesId; }
+    public void setSeriesId(Long seriesId) { this.seriesId = seriesId; }
+    
+    public LocalDate getOccurrenceDate() { return occurrenceDate; }
+    public void setOccurrenceDate(LocalDate occurrenceDate) { this.occurrenceDate = occurrenceDate; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
+    
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    
+    public Boolean getIsPaid() { return isPaid; }
+    public void setIsPaid(Boolean isPaid) { this.isPaid = isPaid; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public Recurrence getRecurrence() { return recurrence; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
+    
+    public boolean isMaterialized() { return materialized; }
+    public void setMaterialized(boolean materialized) { this.materialized = materialized; }
+}
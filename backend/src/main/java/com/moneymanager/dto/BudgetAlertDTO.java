@@ -0,0 +1,65 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+import java.time.Instant;
+
+public class BudgetAlertDTO {
+    private long id;
+    private Long budgetId;
+    private String category;
+    private String level; // "WARNING" or "EXCEEDED"
+    private int threshold;
+    private int percentageSpent;
+    private Money spentAmount;
+    private Money allocatedAmount;
+    private String message;
+    private Instant createdAt;
+    
+    // Constructors
+    public BudgetAlertDTO() {}
+    
+    public BudgetAlertDTO(long id, Long budgetId, String category, String level, int threshold, int percentageSpent,
+                          Money spentAmount, Money allocatedAmount, String message, Instant createdAt) {
+        this.id = id;
+        this.budgetId = budgetId;
+        this.category = category;
+        this.level = level;
+        this.threshold = threshold;
+        this.percentageSpent = percentageSpent;
+        this.spentAmount = spentAmount;
+        this.allocatedAmount = allocatedAmount;
+        this.message = message;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    
+    public Long getBudgetId() { return budgetId; }
+    public void setBudgetId(Long budgetId) { this.budgetId = budgetId; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getLevel() { return level; }
+    public void setLevel(String level) { this.level = level; }
+    
+    public int getThreshold() { return threshold; }
+    public void setThreshold(int threshold) { this.threshold = threshold; }
+    
+    public int getPercentageSpent() { return percentageSpent; }
+    public void setPercentageSpent(int percentageSpent) { this.percentageSpent = percentageSpent; }
+    
+    public Money getSpentAmount() { return spentAmount; }
+    public void setSpentAmount(Money spentAmount) { this.spentAmount = spentAmount; }
+    
+    public Money getAllocatedAmount() { return allocatedAmount; }
+    public void setAllocatedAmount(Money allocatedAmount) { this.allocatedAmount = allocatedAmount; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
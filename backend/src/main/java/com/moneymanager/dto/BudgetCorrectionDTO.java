@@ -0,0 +1,43 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+
+public class BudgetCorrectionDTO {
+    private Long budgetId;
+    private String category;
+    private Money storedSpent;
+    private Money actualSpent;
+    private Money drift;
+    private boolean applied;
+    
+    // Constructors
+    public BudgetCorrectionDTO() {}
+    
+    public BudgetCorrectionDTO(Long budgetId, String category, Money storedSpent, Money actualSpent, boolean applied) {
+        this.budgetId = budgetId;
+        this.category = category;
+        this.storedSpent = storedSpent;
+        this.actualSpent = actualSpent;
+        this.drift = Money.ofCents(storedSpent.getCents() - actualSpent.getCents());
+        this.applied = applied;
+    }
+    
+    // Getters and Setters
+    public Long getBudgetId() { return budgetId; }
+    public void setBudgetId(Long budgetId) { this.budgetId = budgetId; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public Money getStoredSpent() { return storedSpent; }
+    public void setStoredSpent(Money storedSpent) { this.storedSpent = storedSpent; }
+    
+    public Money getActualSpent() { return actualSpent; }
+    public void setActualSpent(Money actualSpent) { this.actualSpent = actualSpent; }
+    
+    public Money getDrift() { return drift; }
+    public void setDrift(Money drift) { this.drift = drift; }
+    
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+}
@@ -0,0 +1,43 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+
+public class BudgetSpendDTO {
+    private Long id;
+    private String category;
+    private Money allocatedAmount;
+    private Money spentAmount;
+    private Money remainingAmount;
+    private Integer percentageSpent;
+    
+    // Constructors
+    public BudgetSpendDTO() {}
+    
+    public BudgetSpendDTO(Long id, String category, long allocatedCents, long spentCents) {
+        this.id = id;
+        this.category = category;
+        this.allocatedAmount = Money.ofCents(allocatedCents);
+        this.spentAmount = Money.ofCents(spentCents);
+        this.remainingAmount = Money.ofCents(allocatedCents - spentCents);
+        this.percentageSpent = Money.percent(spentCents, allocatedCents);
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public Money getAllocatedAmount() { return allocatedAmount; }
+    public void setAllocatedAmount(Money allocatedAmount) { this.allocatedAmount = allocatedAmount; }
+    
+    public Money getSpentAmount() { return spentAmount; }
+    public void setSpentAmount(Money spentAmount) { this.spentAmount = spentAmount; }
+    
+    public Money getRemainingAmount() { return remainingAmount; }
+    public void setRemainingAmount(Money remainingAmount) { this.remainingAmount = remainingAmount; }
+    
+    public Integer getPercentageSpent() { return percentageSpent; }
+    public void setPercentageSpent(Integer percentageSpent) { this.percentageSpent = percentageSpent; }
+}
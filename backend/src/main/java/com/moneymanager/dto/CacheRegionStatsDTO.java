@@ -0,0 +1,32 @@
+package com.moneymanager.dto;
+
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    
+    // Constructors
+    public CacheRegionStatsDTO() {}
+    
+    public CacheRegionStatsDTO(String region, long hits, long misses, long puts) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+    }
+    
+    // Getters and Setters
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+    
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+    
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+    
+    public long getPuts() { return puts; }
+    public void setPuts(long puts) { this.puts = puts; }
+
+}
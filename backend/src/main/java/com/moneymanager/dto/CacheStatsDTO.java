@@ -0,0 +1,65 @@
+package com.moneymanager.dto;
+
+import java.util.List;
+
+public class CacheStatsDTO {
+    private boolean statisticsEnabled;
+    private long entityHits;
+    private long entityMisses;
+    private long entityPuts;
+    private long queryHits;
+    private long queryMisses;
+    private long queryPuts;
+    private double hitRatio;
+    private long databaseQueries;
+    private List<CacheRegionStatsDTO> regions;
+    
+    // Constructors
+    public CacheStatsDTO() {}
+    
+    public CacheStatsDTO(boolean statisticsEnabled, long entityHits, long entityMisses, long entityPuts,
+                         long queryHits, long queryMisses, long queryPuts, double hitRatio,
+                         long databaseQueries, List<CacheRegionStatsDTO> regions) {
+        this.statisticsEnabled = statisticsEnabled;
+        this.entityHits = entityHits;
+        this.entityMisses = entityMisses;
+        this.entityPuts = entityPuts;
+        this.queryHits = queryHits;
+        this.queryMisses = queryMisses;
+        this.queryPuts = queryPuts;
+        this.hitRatio = hitRatio;
+        this.databaseQueries = databaseQueries;
+        this.regions = regions;
+    }
+    
+    // Getters and Setters
+    public boolean isStatisticsEnabled() { return statisticsEnabled; }
+    public void setStatisticsEnabled(boolean statisticsEnabled) { this.statisticsEnabled = statisticsEnabled; }
+    
+    public long getEntityHits() { return entityHits; }
+    public void setEntityHits(long entityHits) { this.entityHits = entityHits; }
+    
+    public long getEntityMisses() { return entityMisses; }
+    public void setEntityMisses(long entityMisses) { this.entityMisses = entityMisses; }
+    
+    public long getEntityPuts() { return entityPuts; }
+    public void setEntityPuts(long entityPuts) { this.entityPuts = entityPuts; }
+    
+    public long getQueryHits() { return queryHits; }
+    public void setQueryHits(long queryHits) { this.queryHits = queryHits; }
+    
+    public long getQueryMisses() { return queryMisses; }
+    public void setQueryMisses(long queryMisses) { this.queryMisses = queryMisses; }
+    
+    public long getQueryPuts() { return queryPuts; }
+    public void setQueryPuts(long queryPuts) { this.queryPuts = queryPuts; }
+    
+    public double getHitRatio() { return hitRatio; }
+    public void setHitRatio(double hitRatio) { this.hitRatio = hitRatio; }
+    
+    public long getDatabaseQueries() { return databaseQueries; }
+    public void setDatabaseQueries(long databaseQueries) { this.databaseQueries = databaseQueries; }
+    
+    public List<CacheRegionStatsDTO> getRegions() { return regions; }
+    public void setRegions(List<CacheRegionStatsDTO> regions) { this.regions = regions; }
+}
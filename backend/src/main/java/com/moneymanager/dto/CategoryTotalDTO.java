@@ -0,0 +1,33 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+
+public class CategoryTotalDTO {
+    private String category;
+    private Money total;
+    private long count;
+    private Double share;
+    
+    // Constructors
+    public CategoryTotalDTO() {}
+    
+    public CategoryTotalDTO(String category, Money total, long count, Double share) {
+        this.category = category;
+        this.total = total;
+        this.count = count;
+        this.share = share;
+    }
+    
+    // Getters and Setters
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public Money getTotal() { return total; }
+    public void setTotal(Money total) { this.total = total; }
+    
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+    
+    public Double getShare() { return share; }
+    public void setShare(Double share) { this.share = share; }
+}
@@ -0,0 +1,54 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Bill;
+import com.moneymanager.model.Budget;
+import com.moneymanager.model.Transaction;
+import java.util.List;
+import java.util.Map;
+
+public class DashboardBundleDTO {
+    private DashboardStatsDTO stats;
+    private List<Transaction> recentTransactions;
+    private List<Budget> budgets;
+    private List<Bill> unpaidBills;
+    // Section name to the reason it is missing; empty when the bundle is complete
+    private Map<String, String> errors;
+    private boolean partial;
+    private long elapsedMillis;
+
+    // Constructors
+    public DashboardBundleDTO() {}
+
+    public DashboardBundleDTO(DashboardStatsDTO stats, List<Transaction> recentTransactions, List<Budget> budgets,
+                              List<Bill> unpaidBills, Map<String, String> errors, long elapsedMillis) {
+        this.stats = stats;
+        this.recentTransactions = recentTransactions;
+        this.budgets = budgets;
+        this.unpaidBills = unpaidBills;
+        this.errors = errors;
+        this.partial = !errors.isEmpty();
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and Setters
+    public DashboardStatsDTO getStats() { return stats; }
+    public void setStats(DashboardStatsDTO stats) { this.stats = stats; }
+
+    public List<Transaction> getRecentTransactions() { return recentTransactions; }
+    public void setRecentTransactions(List<Transaction> recentTransactions) { this.recentTransactions = recentTransactions; }
+
+    public List<Budget> getBudgets() { return budgets; }
+    public void setBudgets(List<Budget> budgets) { this.budgets = budgets; }
+
+    public List<Bill> getUnpaidBills() { return unpaidBills; }
+    public void setUnpaidBills(List<Bill> unpaidBills) { this.unpaidBills = unpaidBills; }
+
+    public Map<String, String> getErrors() { return errors; }
+    public void setErrors(Map<String, String> errors) { this.errors = errors; }
+
+    public boolean isPartial() { return partial; }
+    public void setPartial(boolean partial) { this.partial = partial; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
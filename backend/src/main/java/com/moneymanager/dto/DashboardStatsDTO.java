@@ -1,10 +1,12 @@
 package com.moneymanager.dto;
 
+import com.moneymanager.model.Money;
+
 public class DashboardStatsDTO {
-    private Double totalIncome;
-    private Double totalExpenses;
-    private Double currentBalance;
-    private Double monthlySavings;
+    private Money totalIncome;
+    private Money totalExpenses;
+    private Money currentBalance;
+    private Money monthlySavings;
     private String incomeChange;
     private String expenseChange;
     private String savingsPercentage;
@@ -12,8 +14,8 @@ public class DashboardStatsDTO {
     // Constructors
     public DashboardStatsDTO() {}
     
-    public DashboardStatsDTO(Double totalIncome, Double totalExpenses, Double currentBalance, 
-                            Double monthlySavings, String incomeChange, String expenseChange, 
+    public DashboardStatsDTO(Money totalIncome, Money totalExpenses, Money currentBalance, 
+                            Money monthlySavings, String incomeChange, String expenseChange, 
                             String savingsPercentage) {
         this.totalIncome = totalIncome;
         this.totalExpenses = totalExpenses;
@@ -25,17 +27,17 @@ public class DashboardStatsDTO {
     }
     
     // Getters and Setters
-    public Double getTotalIncome() { return totalIncome; }
-    public void setTotalIncome(Double totalIncome) { this.totalIncome = totalIncome; }
+    public Money getTotalIncome() { return totalIncome; }
+    public void setTotalIncome(Money totalIncome) { this.totalIncome = totalIncome; }
     
-    public Double getTotalExpenses() { return totalExpenses; }
-    public void setTotalExpenses(Double totalExpenses) { this.totalExpenses = totalExpenses; }
+    public Money getTotalExpenses() { return totalExpenses; }
+    public void setTotalExpenses(Money totalExpenses) { this.totalExpenses = totalExpenses; }
     
-    public Double getCurrentBalance() { return currentBalance; }
-    public void setCurrentBalance(Double currentBalance) { this.currentBalance = currentBalance; }
+    public Money getCurrentBalance() { return currentBalance; }
+    public void setCurrentBalance(Money currentBalance) { this.currentBalance = currentBalance; }
     
-    public Double getMonthlySavings() { return monthlySavings; }
-    public void setMonthlySavings(Double monthlySavings) { this.monthlySavings = monthlySavings; }
+    public Money getMonthlySavings() { return monthlySavings; }
+    public void setMonthlySavings(Money monthlySavings) { this.monthlySavings = monthlySavings; }
     
     public String getIncomeChange() { return incomeChange; }
     public void setIncomeChange(String incomeChange) { this.incomeChange = incomeChange; }
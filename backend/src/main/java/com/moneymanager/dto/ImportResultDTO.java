@@ -0,0 +1,49 @@
+package com.moneymanager.dto;
+
+import java.util.List;
+
+public class ImportResultDTO {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ImportRowErrorDTO> errors;
+    private boolean errorsTruncated;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    
+    // Constructors
+    public ImportResultDTO() {}
+    
+    public ImportResultDTO(long totalRows, long importedRows, long failedRows, List<ImportRowErrorDTO> errors,
+                           boolean errorsTruncated, long elapsedMillis, double rowsPerSecond) {
+        this.totalRows = totalRows;
+        this.importedRows = importedRows;
+        this.failedRows = failedRows;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+    
+    // Getters and Setters
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+    
+    public long getImportedRows() { return importedRows; }
+    public void setImportedRows(long importedRows) { this.importedRows = importedRows; }
+    
+    public long getFailedRows() { return failedRows; }
+    public void setFailedRows(long failedRows) { this.failedRows = failedRows; }
+    
+    public List<ImportRowErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<ImportRowErrorDTO> errors) { this.errors = errors; }
+    
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+}
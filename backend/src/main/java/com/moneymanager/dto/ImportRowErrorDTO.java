@@ -0,0 +1,21 @@
+package com.moneymanager.dto;
+
+public class ImportRowErrorDTO {
+    private long line;
+    private String message;
+    
+    // Constructors
+    public ImportRowErrorDTO() {}
+    
+    public ImportRowErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,30 @@
+package com.moneymanager.dto;
+
+import java.util.Collection;
+import java.util.List;
+
+public class LedgerDeltaDTO<T> {
+    private List<T> upserted;
+    private Collection<Long> deletedIds;
+    // Set instead of the items when the change was too large to stream; clients refetch
+    private boolean resync;
+    
+    // Constructors
+    public LedgerDeltaDTO() {}
+    
+    public LedgerDeltaDTO(List<T> upserted, Collection<Long> deletedIds, boolean resync) {
+        this.upserted = upserted;
+        this.deletedIds = deletedIds;
+        this.resync = resync;
+    }
+    
+    // Getters and Setters
+    public List<T> getUpserted() { return upserted; }
+    public void setUpserted(List<T> upserted) { this.upserted = upserted; }
+    
+    public Collection<Long> getDeletedIds() { return deletedIds; }
+    public void setDeletedIds(Collection<Long> deletedIds) { this.deletedIds = deletedIds; }
+    
+    public boolean isResync() { return resync; }
+    public void setResync(boolean resync) { this.resync = resync; }
+}
@@ -0,0 +1,50 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+import java.util.List;
+
+public class ReconciliationReportDTO {
+    private int budgetsChecked;
+    private int budgetsCorrected;
+    private int budgetsSkipped;
+    private Money totalDrift;
+    private int partitions;
+    private long elapsedMillis;
+    private List<BudgetCorrectionDTO> corrections;
+    
+    // Constructors
+    public ReconciliationReportDTO() {}
+    
+    public ReconciliationReportDTO(int budgetsChecked, int budgetsCorrected, int budgetsSkipped, Money totalDrift,
+                                   int partitions, long elapsedMillis, List<BudgetCorrectionDTO> corrections) {
+        this.budgetsChecked = budgetsChecked;
+        this.budgetsCorrected = budgetsCorrected;
+        this.budgetsSkipped = budgetsSkipped;
+        this.totalDrift = totalDrift;
+        this.partitions = partitions;
+        this.elapsedMillis = elapsedMillis;
+        this.corrections = corrections;
+    }
+    
+    // Getters and Setters
+    public int getBudgetsChecked() { return budgetsChecked; }
+    public void setBudgetsChecked(int budgetsChecked) { this.budgetsChecked = budgetsChecked; }
+    
+    public int getBudgetsCorrected() { return budgetsCorrected; }
+    public void setBudgetsCorrected(int budgetsCorrected) { this.budgetsCorrected = budgetsCorrected; }
+    
+    public int getBudgetsSkipped() { return budgetsSkipped; }
+    public void setBudgetsSkipped(int budgetsSkipped) { this.budgetsSkipped = budgetsSkipped; }
+    
+    public Money getTotalDrift() { return totalDrift; }
+    public void setTotalDrift(Money totalDrift) { this.totalDrift = totalDrift; }
+    
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    
+    public List<BudgetCorrectionDTO> getCorrections() { return corrections; }
+    public void setCorrections(List<BudgetCorrectionDTO> corrections) { this.corrections = corrections; }
+}
@@ -0,0 +1,44 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Money;
+import java.time.LocalDate;
+
+public class TimeBucketDTO {
+    private String period;
+    private LocalDate startDate;
+    private String type;
+    private String category;
+    private Money total;
+    private long count;
+    
+    // Constructors
+    public TimeBucketDTO() {}
+    
+    public TimeBucketDTO(String period, LocalDate startDate, String type, String category, Money total, long count) {
+        this.period = period;
+        this.startDate = startDate;
+        this.type = type;
+        this.category = category;
+        this.total = total;
+        this.count = count;
+    }
+    
+    // Getters and Setters
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public Money getTotal() { return total; }
+    public void setTotal(Money total) { this.total = total; }
+    
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
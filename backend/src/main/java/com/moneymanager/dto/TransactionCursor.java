@@ -0,0 +1,40 @@
+package com.moneymanager.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over (date desc, id desc).
+ * Clients must treat the encoded form as an opaque string.
+ */
+public class TransactionCursor {
+    private final LocalDate date;
+    private final Long id;
+
+    public TransactionCursor(LocalDate date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDate getDate() { return date; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = date.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            LocalDate date = LocalDate.ofEpochDay(Long.parseLong(raw.substring(0, sep)));
+            Long id = Long.parseLong(raw.substring(sep + 1));
+            return new TransactionCursor(date, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
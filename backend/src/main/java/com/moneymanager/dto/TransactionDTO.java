@@ -1,5 +1,6 @@
 package com.moneymanager.dto;
 
+import com.moneymanager.model.Money;
 import java.time.LocalDate;
 
 public class TransactionDTO {
@@ -7,13 +8,13 @@ public class TransactionDTO {
     private String description;
     private String category;
     private LocalDate date;
-    private Double amount;
+    private Money amount;
     private String type;
     
     // Constructors
     public TransactionDTO() {}
     
-    public TransactionDTO(String description, String category, LocalDate date, Double amount, String type) {
+    public TransactionDTO(String description, String category, LocalDate date, Money amount, String type) {
         this.description = description;
         this.category = category;
         this.date = date;
@@ -21,7 +22,7 @@ public class TransactionDTO {
         this.type = type;
     }
     
-    public TransactionDTO(Long id, String description, String category, LocalDate date, Double amount, String type) {
+    public TransactionDTO(Long id, String description, String category, LocalDate date, Money amount, String type) {
         this.id = id;
         this.description = description;
         this.category = category;
@@ -43,8 +44,8 @@ public class TransactionDTO {
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
     
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
     
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
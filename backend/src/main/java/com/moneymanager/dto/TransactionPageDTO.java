@@ -0,0 +1,29 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Transaction;
+import java.util.List;
+
+public class TransactionPageDTO {
+    private List<Transaction> items;
+    private String nextCursor;
+    private boolean hasMore;
+    
+    // Constructors
+    public TransactionPageDTO() {}
+    
+    public TransactionPageDTO(List<Transaction> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<Transaction> getItems() { return items; }
+    public void setItems(List<Transaction> items) { this.items = items; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
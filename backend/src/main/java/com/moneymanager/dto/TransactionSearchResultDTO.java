@@ -0,0 +1,39 @@
+package com.moneymanager.dto;
+
+import com.moneymanager.model.Transaction;
+import java.util.List;
+
+public class TransactionSearchResultDTO {
+    private List<Transaction> items;
+    private long total;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    
+    // Constructors
+    public TransactionSearchResultDTO() {}
+    
+    public TransactionSearchResultDTO(List<Transaction> items, long total, int page, int size, boolean hasMore) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<Transaction> getItems() { return items; }
+    public void setItems(List<Transaction> items) { this.items = items; }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
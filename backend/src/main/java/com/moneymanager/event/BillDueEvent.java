@@ -0,0 +1,23 @@
+package com.moneymanager.event;
+
+import com.moneymanager.model.Bill;
+
+/**
+ * Published by the bill scheduler when an unpaid bill enters its reminder
+ * window or becomes overdue. Each kind fires at most once per due date.
+ */
+public class BillDueEvent {
+    public static final String REMINDER = "REMINDER";
+    public static final String OVERDUE = "OVERDUE";
+    
+    private final Bill bill;
+    private final String kind;
+    
+    public BillDueEvent(Bill bill, String kind) {
+        this.bill = bill;
+        this.kind = kind;
+    }
+    
+    public Bill getBill() { return bill; }
+    public String getKind() { return kind; }
+}
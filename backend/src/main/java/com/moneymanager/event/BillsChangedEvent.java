@@ -0,0 +1,22 @@
+package com.moneymanager.event;
+
+import com.moneymanager.model.Bill;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever bills are created, changed or deleted, including
+ * occurrences of recurring series when they are materialized.
+ */
+public class BillsChangedEvent {
+    private final List<Bill> changed;
+    private final Collection<Long> deletedIds;
+    
+    public BillsChangedEvent(List<Bill> changed, Collection<Long> deletedIds) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+    }
+    
+    public List<Bill> getChanged() { return changed; }
+    public Collection<Long> getDeletedIds() { return deletedIds; }
+}
@@ -0,0 +1,14 @@
+package com.moneymanager.event;
+
+import com.moneymanager.dto.BudgetAlertDTO;
+
+/** Published after a budget's spend crossed one of the alert thresholds. */
+public class BudgetAlertEvent {
+    private final BudgetAlertDTO alert;
+    
+    public BudgetAlertEvent(BudgetAlertDTO alert) {
+        this.alert = alert;
+    }
+    
+    public BudgetAlertDTO getAlert() { return alert; }
+}
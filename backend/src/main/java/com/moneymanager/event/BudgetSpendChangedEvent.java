@@ -0,0 +1,32 @@
+package com.moneymanager.event;
+
+/**
+ * Published whenever a budget's spent or allocated amount changes, carrying
+ * the values before and after so listeners can detect threshold crossings
+ * without re-reading the row.
+ */
+public class BudgetSpendChangedEvent {
+    private final Long budgetId;
+    private final String category;
+    private final long previousSpentCents;
+    private final long previousAllocatedCents;
+    private final long spentCents;
+    private final long allocatedCents;
+    
+    public BudgetSpendChangedEvent(Long budgetId, String category, long previousSpentCents, long previousAllocatedCents,
+                                   long spentCents, long allocatedCents) {
+        this.budgetId = budgetId;
+        this.category = category;
+        this.previousSpentCents = previousSpentCents;
+        this.previousAllocatedCents = previousAllocatedCents;
+        this.spentCents = spentCents;
+        this.allocatedCents = allocatedCents;
+    }
+    
+    public Long getBudgetId() { return budgetId; }
+    public String getCategory() { return category; }
+    public long getPreviousSpentCents() { return previousSpentCents; }
+    public long getPreviousAllocatedCents() { return previousAllocatedCents; }
+    public long getSpentCents() { return spentCents; }
+    public long getAllocatedCents() { return allocatedCents; }
+}
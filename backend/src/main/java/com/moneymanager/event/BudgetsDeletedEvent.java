@@ -0,0 +1,17 @@
+package com.moneymanager.event;
+
+import java.util.Collection;
+
+/**
+ * Published when budgets are deleted. Creations and changes are covered by
+ * {@link BudgetSpendChangedEvent}.
+ */
+public class BudgetsDeletedEvent {
+    private final Collection<Long> ids;
+    
+    public BudgetsDeletedEvent(Collection<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public Collection<Long> getIds() { return ids; }
+}
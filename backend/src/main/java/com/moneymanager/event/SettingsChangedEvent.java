@@ -0,0 +1,14 @@
+package com.moneymanager.event;
+
+import com.moneymanager.model.Settings;
+
+/** Published after the settings record has been saved. */
+public class SettingsChangedEvent {
+    private final Settings settings;
+    
+    public SettingsChangedEvent(Settings settings) {
+        this.settings = settings;
+    }
+    
+    public Settings getSettings() { return settings; }
+}
@@ -0,0 +1,27 @@
+package com.moneymanager.event;
+
+import com.moneymanager.model.Transaction;
+import java.util.List;
+
+/**
+ * Published inside the writing database transaction whenever transactions
+ * are created, updated or deleted. An update carries the old state in
+ * {@code removed} and the new state in {@code added}. In-memory projections
+ * listen for it after commit and apply removals first.
+ */
+public class TransactionsChangedEvent {
+    private final List<Transaction> added;
+    private final List<Transaction> removed;
+    
+    public TransactionsChangedEvent(List<Transaction> added) {
+        this(added, List.of());
+    }
+    
+    public TransactionsChangedEvent(List<Transaction> added, List<Transaction> removed) {
+        this.added = added;
+        this.removed = removed;
+    }
+    
+    public List<Transaction> getAdded() { return added; }
+    public List<Transaction> getRemoved() { return removed; }
+}
@@ -0,0 +1,54 @@
+package com.moneymanager.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Publishes histogram buckets for the service methods listed in
+ * moneymanager.metrics.histogram-methods as {@code Class.method}, bounded
+ * to the same latency range as http.server.requests. A histogram adds
+ * dozens of series per tag combination, so every other service timer
+ * exports only count, sum and max.
+ */
+@Component
+public class HotPathHistogramFilter implements MeterFilter {
+
+    @Value("${moneymanager.metrics.histogram-methods:}")
+    private String[] histogramMethods;
+
+    @Value("${management.metrics.distribution.minimum-expected-value.http.server.requests:1ms}")
+    private Duration minimumExpectedValue;
+
+    @Value("${management.metrics.distribution.maximum-expected-value.http.server.requests:10s}")
+    private Duration maximumExpectedValue;
+
+    private Set<String> methods;
+
+    @PostConstruct
+    void indexMethods() {
+        methods = new HashSet<>(Arrays.asList(histogramMethods));
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!ServiceMetricsAspect.METRIC_NAME.equals(id.getName())
+                || !methods.contains(id.getTag("class") + "." + id.getTag("method"))) {
+            return config;
+        }
+        return DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue((double) minimumExpectedValue.toNanos())
+                .maximumExpectedValue((double) maximumExpectedValue.toNanos())
+                .build()
+                .merge(config);
+    }
+}
@@ -1,24 +1,40 @@
 package com.moneymanager.model;
 
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "bills")
+@Table(name = "bills", indexes = {
+    // Serves the "unpaid and due by" scans of the bill scheduler and /upcoming
+    @Index(name = "idx_bills_paid_due", columnList = "is_paid, due_date"),
+    @Index(name = "idx_bills_recurrence_due", columnList = "recurrence, due_date")
+}, uniqueConstraints = {
+    // At most one materialized row per occurrence of a series
+    @UniqueConstraint(name = "uk_bills_series_occurrence", columnNames = {"series_id", "occurrence_date"})
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Bill implements Serializable {
 
+    // Pooled sequence so batched creates go out as JDBC batches (IDENTITY disables them)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+    @SequenceGenerator(name = "bills_seq", sequenceName = "bills_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String description;
 
-    @Column(nullable = false)
-    private Double amount;
+    @Column(name = "amount_cents", nullable = false)
+    private Money amount;
 
     @Column(name = "due_date", nullable = false)
     @JsonFormat(pattern = "yyyy-MM-dd")
@@ -27,14 +43,47 @@ public class Bill implements Serializable {
     @Column(name = "is_paid", nullable = false)
     private Boolean isPaid = false;
 
-    @Column(nullable = false)
+    // Recurring series: this row is the template and dueDate is the first occurrence
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence", length = 16)
+    private Recurrence recurrence;
+
+    @Column(name = "recurrence_interval")
+    private Integer recurrenceInterval;
+
+    @Column(name = "recurrence_end")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate recurrenceEnd;
+
+    // Set on a row materialized from a series when an occurrence is paid, edited or notified
+    @Column(name = "series_id")
+    private Long seriesId;
+
+    @Column(name = "occurrence_date")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate occurrenceDate;
+
+    // Last due-date notification sent: 0 none, 1 reminder, 2 overdue
+    @Column(name = "notified_stage", nullable = false)
+    @JsonIgnore
+    private Integer notifiedStage = 0;
+
+    @Column(name = "category_id", nullable = false)
+    @Convert(converter = CategoryConverter.class)
     private String category;
 
+    // Read-only association that only exists to give category_id its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(name = "fk_bills_category"))
+    @JsonIgnore
+    private Category categoryRef;
+
     // Constructors
     public Bill() {
     }
 
-    public Bill(String description, Double amount, LocalDate dueDate, String category) {
+    public Bill(String description, Money amount, LocalDate dueDate, String category) {
         this.description = description;
         this.amount = amount;
         this.dueDate = dueDate;
@@ -59,11 +108,11 @@ public class Bill implements Serializable {
         this.description = description;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -83,6 +132,94 @@ public class Bill implements Serializable {
         this.isPaid = isPaid;
     }
 
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public Integer getRecurrenceInterval() {
+        return recurrenceInterval;
+    }
+
+    public void setRecurrenceInterval(Integer recurrenceInterval) {
+        this.recurrenceInterval = recurrenceInterval;
+    }
+
+    public LocalDate getRecurrenceEnd() {
+        return recurrenceEnd;
+    }
+
+    public void setRecurrenceEnd(LocalDate recurrenceEnd) {
+        this.recurrenceEnd = recurrenceEnd;
+    }
+
+    public Long getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    @JsonIgnore
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /** Repeat interval, defaulting to every single unit. */
+    @JsonIgnore
+    public int getEffectiveInterval() {
+        return recurrenceInterval != null && recurrenceInterval > 0 ? recurrenceInterval : 1;
+    }
+
+    /** Occurrence dates of this series falling within [from, to], in order. */
+    public List<LocalDate> occurrencesBetween(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (recurrence == null) {
+            return dates;
+        }
+        LocalDate last = recurrenceEnd != null && recurrenceEnd.isBefore(to) ? recurrenceEnd : to;
+        int interval = getEffectiveInterval();
+        for (long index = recurrence.firstIndexOnOrAfter(dueDate, from, interval); ; index++) {
+            LocalDate date = recurrence.occurrence(dueDate, index, interval);
+            if (date.isAfter(last)) {
+                return dates;
+            }
+            dates.add(date);
+        }
+    }
+
+    public boolean occursOn(LocalDate date) {
+        return !occurrencesBetween(date, date).isEmpty();
+    }
+
+    /** A concrete, unpaid bill for one occurrence of this series. */
+    public Bill newOccurrence(LocalDate date) {
+        Bill occurrence = new Bill(description, amount, date, category);
+        occurrence.setSeriesId(id);
+        occurrence.setOccurrenceDate(date);
+        return occurrence;
+    }
+
+    public Integer getNotifiedStage() {
+        return notifiedStage;
+    }
+
+    public void setNotifiedStage(Integer notifiedStage) {
+        this.notifiedStage = notifiedStage;
+    }
+
     public String getCategory() {
         return category;
     }
@@ -100,6 +237,7 @@ public class Bill implements Serializable {
                 ", dueDate=" + dueDate +
                 ", isPaid=" + isPaid +
                 ", category='" + category + '\'' +
+                ", recurrence=" + recurrence +
                 '}';
     }
 }
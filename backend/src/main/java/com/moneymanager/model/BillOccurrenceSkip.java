@@ -0,0 +1,62 @@
+package com.moneymanager.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Tombstone for a deleted occurrence of a recurring bill. Occurrences without
+ * a row are expanded from the series rule, so deleting a materialized row
+ * alone would bring the virtual occurrence back; the skip keeps it out of
+ * listings and stops the scheduler from materializing it again.
+ */
+@Entity
+@Table(name = "bill_occurrence_skips", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_bill_skips_series_occurrence", columnNames = {"series_id", "occurrence_date"})
+})
+public class BillOccurrenceSkip implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "series_id", nullable = false)
+    private Long seriesId;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    // Constructors
+    public BillOccurrenceSkip() {
+    }
+
+    public BillOccurrenceSkip(Long seriesId, LocalDate occurrenceDate) {
+        this.seriesId = seriesId;
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+}
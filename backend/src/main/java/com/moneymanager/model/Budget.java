@@ -1,27 +1,43 @@
 package com.moneymanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 
 @Entity
 @Table(name = "budgets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Budget implements Serializable {
     
+    // Pooled sequence so batched creates go out as JDBC batches (IDENTITY disables them)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budgets_seq")
+    @SequenceGenerator(name = "budgets_seq", sequenceName = "budgets_seq", allocationSize = 50)
     private Long id;
     
-    @Column(nullable = false, unique = true)
+    @Column(name = "category_id", nullable = false, unique = true)
+    @Convert(converter = CategoryConverter.class)
     private String category;
     
-    @Column(name = "allocated_amount", nullable = false)
-    private Double allocatedAmount;
+    // Read-only association that only exists to give category_id its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(name = "fk_budgets_category"))
+    @JsonIgnore
+    private Category categoryRef;
+    
+    @Column(name = "allocated_cents", nullable = false)
+    private Money allocatedAmount;
     
-    @Column(name = "spent_amount", nullable = false)
-    private Double spentAmount;
+    @Column(name = "spent_cents", nullable = false)
+    private Money spentAmount;
     
-    @Column(name = "remaining_amount", nullable = false)
-    private Double remainingAmount;
+    @Column(name = "remaining_cents", nullable = false)
+    private Money remainingAmount;
     
     @Column(name = "percentage_spent", nullable = false)
     private Integer percentageSpent;
@@ -29,8 +45,8 @@ public class Budget implements Serializable {
     // Constructors
     public Budget() {}
     
-    public Budget(String category, Double allocatedAmount, Double spentAmount, 
-                  Double remainingAmount, Integer percentageSpent) {
+    public Budget(String category, Money allocatedAmount, Money spentAmount, 
+                  Money remainingAmount, Integer percentageSpent) {
         this.category = category;
         this.allocatedAmount = allocatedAmount;
         this.spentAmount = spentAmount;
@@ -45,14 +61,14 @@ public class Budget implements Serializable {
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
     
-    public Double getAllocatedAmount() { return allocatedAmount; }
-    public void setAllocatedAmount(Double allocatedAmount) { this.allocatedAmount = allocatedAmount; }
+    public Money getAllocatedAmount() { return allocatedAmount; }
+    public void setAllocatedAmount(Money allocatedAmount) { this.allocatedAmount = allocatedAmount; }
     
-    public Double getSpentAmount() { return spentAmount; }
-    public void setSpentAmount(Double spentAmount) { this.spentAmount = spentAmount; }
+    public Money getSpentAmount() { return spentAmount; }
+    public void setSpentAmount(Money spentAmount) { this.spentAmount = spentAmount; }
     
-    public Double getRemainingAmount() { return remainingAmount; }
-    public void setRemainingAmount(Double remainingAmount) { this.remainingAmount = remainingAmount; }
+    public Money getRemainingAmount() { return remainingAmount; }
+    public void setRemainingAmount(Money remainingAmount) { this.remainingAmount = remainingAmount; }
     
     public Integer getPercentageSpent() { return percentageSpent; }
     public void setPercentageSpent(Integer percentageSpent) { this.percentageSpent = percentageSpent; }
@@ -0,0 +1,30 @@
+package com.moneymanager.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "categories")
+public class Category implements Serializable {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    @Column(nullable = false, unique = true)
+    private String name;
+    
+    // Constructors
+    public Category() {}
+    
+    public Category(String name) {
+        this.name = name;
+    }
+    
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
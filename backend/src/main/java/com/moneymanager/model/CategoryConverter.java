@@ -0,0 +1,32 @@
+package com.moneymanager.model;
+
+import com.moneymanager.service.CategoryCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a category name as its integer id from the categories table.
+ * Lookups are served by {@link CategoryCache}; Hibernate obtains this
+ * converter from the Spring context while the EntityManagerFactory is still
+ * being built, so the cache is injected lazily to break the cycle.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Integer> {
+
+    @Autowired
+    @Lazy
+    private CategoryCache categoryCache;
+
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        return name == null ? null : categoryCache.idOf(name);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : categoryCache.nameOf(id);
+    }
+}
@@ -0,0 +1,106 @@
+package com.moneymanager.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable monetary amount held as a whole number of cents. Arithmetic in
+ * services should work on {@link #getCents()} and wrap the final result once,
+ * rather than chaining Money operations.
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /** Converts a decimal amount, rounding half-up to whole cents. */
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /** Parses a plain decimal string such as "89.99". */
+    public static Money parse(String amount) {
+        try {
+            return of(new BigDecimal(amount.trim()));
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + amount);
+        }
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Percentage of {@code part} in {@code whole}, rounded half-up, computed
+     * without floating point. Returns 0 when {@code whole} is not positive.
+     */
+    public static int percent(long part, long whole) {
+        if (whole <= 0) {
+            return 0;
+        }
+        long scaled = part * 100;
+        long quotient = Math.floorDiv(scaled, whole);
+        long remainder = Math.floorMod(scaled, whole);
+        return (int) (remainder * 2 >= whole ? quotient + 1 : quotient);
+    }
+
+    /** {@code percent}% of {@code cents}, rounded half-up to whole cents. */
+    public static long percentOf(long cents, int percent) {
+        return Math.floorDiv(cents * percent + 50, 100);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /** Plain decimal form with two fraction digits, e.g. "-12.05". */
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+}
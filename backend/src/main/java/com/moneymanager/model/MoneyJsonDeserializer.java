@@ -0,0 +1,38 @@
+package com.moneymanager.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link Money} from a JSON number or numeric string without going
+ * through double, so 0.1 + 0.2 style rounding never reaches the ledger.
+ */
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Money.ofCents(Math.multiplyExact(p.getLongValue(), 100L));
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return Money.of(p.getDecimalValue());
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Money.parse(p.getText());
+            } catch (NumberFormatException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), "not a valid amount");
+            }
+        }
+        return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+    }
+}
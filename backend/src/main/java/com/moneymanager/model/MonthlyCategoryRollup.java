@@ -0,0 +1,66 @@
+package com.moneymanager.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Pre-aggregated transaction totals per month, category and type, kept
+ * current by TransactionService so the dashboard never rescans transactions.
+ */
+@Entity
+@Table(name = "monthly_category_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_month_category_type", columnNames = {"period_month", "category_id", "type"})
+})
+public class MonthlyCategoryRollup implements Serializable {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth; // yyyyMM, e.g. 202310
+    
+    @Column(name = "category_id", nullable = false)
+    @Convert(converter = CategoryConverter.class)
+    private String category;
+    
+    @Column(nullable = false)
+    private String type;
+    
+    @Column(name = "total_cents", nullable = false)
+    private Long totalCents;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+    
+    // Constructors
+    public MonthlyCategoryRollup() {}
+    
+    public MonthlyCategoryRollup(Integer periodMonth, String category, String type,
+                                 Long totalCents, Long transactionCount) {
+        this.periodMonth = periodMonth;
+        this.category = category;
+        this.type = type;
+        this.totalCents = totalCents;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Integer getPeriodMonth() { return periodMonth; }
+    public void setPeriodMonth(Integer periodMonth) { this.periodMonth = periodMonth; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public Long getTotalCents() { return totalCents; }
+    public void setTotalCents(Long totalCents) { this.totalCents = totalCents; }
+    
+    public Long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Long transactionCount) { this.transactionCount = transactionCount; }
+}
@@ -0,0 +1,40 @@
+package com.moneymanager.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Repeat rule of a recurring bill. Occurrence k of a series is computed from
+ * the anchor date directly, never from the previous occurrence, so a bill
+ * anchored on the 31st lands on the last day of shorter months without
+ * drifting to the 28th for the rest of the year.
+ */
+public enum Recurrence {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    Recurrence(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /** Date of occurrence {@code index} (0 is the anchor) repeating every {@code interval} units. */
+    public LocalDate occurrence(LocalDate anchor, long index, int interval) {
+        return anchor.plus(index * interval, unit);
+    }
+
+    /** Smallest occurrence index whose date is on or after {@code date}. */
+    public long firstIndexOnOrAfter(LocalDate anchor, LocalDate date, int interval) {
+        if (!date.isAfter(anchor)) {
+            return 0;
+        }
+        long index = unit.between(anchor, date) / interval;
+        // Month arithmetic clamps days, so step forward until we reach the date
+        while (occurrence(anchor, index, interval).isBefore(date)) {
+            index++;
+        }
+        return index;
+    }
+}
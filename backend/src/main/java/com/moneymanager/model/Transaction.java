@@ -1,28 +1,44 @@
 package com.moneymanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // Descending to match the newest-first listings; H2 will not scan an index backwards
+    @Index(name = "idx_transactions_date_id", columnList = "date DESC, id DESC"),
+    @Index(name = "idx_transactions_type_date", columnList = "type, date")
+})
 public class Transaction implements Serializable {
     
+    // Pooled sequence so Hibernate can batch inserts (IDENTITY disables JDBC batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
     private String description;
     
-    @Column(nullable = false)
+    @Column(name = "category_id", nullable = false)
+    @Convert(converter = CategoryConverter.class)
     private String category;
     
+    // Read-only association that only exists to give category_id its foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(name = "fk_transactions_category"))
+    @JsonIgnore
+    private Category categoryRef;
+    
     @Column(nullable = false)
     private LocalDate date;
     
-    @Column(nullable = false)
-    private Double amount;
+    @Column(name = "amount_cents", nullable = false)
+    private Money amount;
     
     @Column(nullable = false)
     private String type; // "INCOME" or "EXPENSE"
@@ -30,7 +46,7 @@ public class Transaction implements Serializable {
     // Constructors
     public Transaction() {}
     
-    public Transaction(String description, String category, LocalDate date, Double amount, String type) {
+    public Transaction(String description, String category, LocalDate date, Money amount, String type) {
         this.description = description;
         this.category = category;
         this.date = date;
@@ -51,8 +67,8 @@ public class Transaction implements Serializable {
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
     
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
     
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
@@ -0,0 +1,28 @@
+package com.moneymanager.repository;
+
+import com.moneymanager.model.BillOccurrenceSkip;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BillOccurrenceSkipRepository extends JpaRepository<BillOccurrenceSkip, Long> {
+
+    List<BillOccurrenceSkip> findBySeriesIdInAndOccurrenceDateBetween(Collection<Long> seriesIds, LocalDate from,
+                                                                      LocalDate to);
+
+    boolean existsBySeriesIdAndOccurrenceDate(Long seriesId, LocalDate occurrenceDate);
+
+    boolean existsBySeriesId(Long seriesId);
+
+    // Skips of a deleted series have nothing left to hide
+    @Modifying
+    @Query("DELETE FROM BillOccurrenceSkip s WHERE s.seriesId IN :seriesIds")
+    int deleteBySeriesIds(@Param("seriesIds") Collection<Long> seriesIds);
+}
@@ -2,11 +2,81 @@ package com.moneymanager.repository;
 
 import com.moneymanager.model.Bill;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
-    List<Bill> findByIsPaidFalseOrderByDueDateAsc();
+    // Listing reads are served from the query cache until the bills table changes
+    @Override
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Bill> findAll();
+
+    // Series templates are rules rather than payable bills and are excluded from bill listings
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Bill> findByIsPaidFalseAndRecurrenceIsNullOrderByDueDateAsc();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Bill> findByRecurrenceIsNullAndDueDateBetweenOrderByDueDateAsc(LocalDate from, LocalDate to);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT b FROM Bill b WHERE b.recurrence IS NOT NULL AND b.dueDate <= :to " +
+           "AND (b.recurrenceEnd IS NULL OR b.recurrenceEnd >= :from)")
+    List<Bill> findActiveTemplates(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Materialized occurrences, including ones whose due date was moved out of the window
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Bill> findBySeriesIdInAndOccurrenceDateBetween(Collection<Long> seriesIds, LocalDate from, LocalDate to);
+
+    Optional<Bill> findBySeriesIdAndOccurrenceDate(Long seriesId, LocalDate occurrenceDate);
+
+    boolean existsBySeriesId(Long seriesId);
+
+    // Locks the rows until the transaction ends, so a schedule change of a series
+    // and the materialization of one of its occurrences cannot interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bill b WHERE b.id = :id")
+    Optional<Bill> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bill b WHERE b.id IN :ids")
+    List<Bill> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Bill b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Occurrences outlive their series as ordinary one-off bills
+    @Modifying
+    @Query("UPDATE Bill b SET b.seriesId = NULL WHERE b.seriesId IN :seriesIds")
+    int detachSeries(@Param("seriesIds") Collection<Long> seriesIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Bill b SET b.isPaid = CASE WHEN b.isPaid = true THEN false ELSE true END WHERE b.id IN :ids")
+    int toggleStatus(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b FROM Bill b WHERE b.isPaid = false AND b.recurrence IS NULL AND b.notifiedStage < :stage " +
+           "AND b.dueDate <= :until ORDER BY b.dueDate")
+    List<Bill> findPendingNotification(@Param("stage") int stage, @Param("until") LocalDate until);
+
+    @Query("SELECT b FROM Bill b WHERE b.isPaid = false AND b.recurrence IS NULL AND b.notifiedStage < :stage " +
+           "AND b.dueDate > :after AND b.dueDate <= :until ORDER BY b.dueDate")
+    List<Bill> findPendingNotification(@Param("stage") int stage, @Param("after") LocalDate after,
+                                       @Param("until") LocalDate until);
+
+    // Claims a notification stage exactly once, even across restarts or concurrent schedulers
+    @Modifying
+    @Query("UPDATE Bill b SET b.notifiedStage = :stage " +
+           "WHERE b.id = :id AND b.isPaid = false AND b.notifiedStage < :stage AND b.dueDate = :dueDate")
+    int claimStage(@Param("id") Long id, @Param("stage") int stage, @Param("dueDate") LocalDate dueDate);
 }
@@ -2,9 +2,74 @@ package com.moneymanager.repository;
 
 import com.moneymanager.model.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
+    // Served from the query cache until a write to budgets invalidates it
+    @Override
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Budget> findAll();
+
     Budget findByCategory(String category);
+
+    @Query("SELECT b.id FROM Budget b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Always read from the database, never the second-level cache, so a
+    // caller holding the row lock sees the committed spent amount
+    @Query("SELECT b FROM Budget b WHERE b.id IN :ids")
+    List<Budget> findCurrent(@Param("ids") Collection<Long> ids);
+
+    // Locks the rows until the transaction ends and returns id, allocated_cents pairs
+    @Query(value = "SELECT id, allocated_cents FROM budgets WHERE id IN :ids FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockAllocations(@Param("ids") Collection<Long> ids);
+
+    // Single-statement increment so concurrent writers never lose an update.
+    // Every right-hand side reads the pre-update row; the percentage is
+    // rounded half-up on whole cents, matching Money.percent. SQL integer
+    // division truncates toward zero, so a negative numerator is shifted by
+    // one divisor less one to floor it the way Math.floorDiv does.
+    // The native spaces hint limits cache invalidation to the budgets region;
+    // without it Hibernate drops every second-level cache region. It also
+    // narrows auto-flush to budgets, so pending writes are flushed explicitly
+    // before the clear would discard them.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "budgets"))
+    @Query(value = "UPDATE budgets SET " +
+                   "spent_cents = spent_cents + :cents, " +
+                   "remaining_cents = allocated_cents - (spent_cents + :cents), " +
+                   "percentage_spent = CASE WHEN allocated_cents <= 0 THEN 0 " +
+                   "WHEN (spent_cents + :cents) * 200 + allocated_cents >= 0 " +
+                   "THEN ((spent_cents + :cents) * 200 + allocated_cents) / (2 * allocated_cents) " +
+                   "ELSE ((spent_cents + :cents) * 200 - allocated_cents + 1) / (2 * allocated_cents) END " +
+                   "WHERE category_id = :categoryId",
+           nativeQuery = true)
+    int addSpent(@Param("categoryId") int categoryId, @Param("cents") long cents);
+
+    // Changes category and allocation without writing spent_cents, so it
+    // cannot overwrite a concurrent addSpent; derived columns use the same
+    // rounding as addSpent.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "budgets"))
+    @Query(value = "UPDATE budgets SET " +
+                   "category_id = :categoryId, " +
+                   "allocated_cents = :allocated, " +
+                   "remaining_cents = :allocated - spent_cents, " +
+                   "percentage_spent = CASE WHEN :allocated <= 0 THEN 0 " +
+                   "WHEN spent_cents * 200 + :allocated >= 0 " +
+                   "THEN (spent_cents * 200 + :allocated) / (2 * :allocated) " +
+                   "ELSE (spent_cents * 200 - :allocated + 1) / (2 * :allocated) END " +
+                   "WHERE id = :id",
+           nativeQuery = true)
+    int updateAllocation(@Param("id") long id, @Param("categoryId") int categoryId,
+                         @Param("allocated") long allocatedCents);
 }
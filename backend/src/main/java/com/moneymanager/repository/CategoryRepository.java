@@ -0,0 +1,9 @@
+package com.moneymanager.repository;
+
+import com.moneymanager.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer> {
+}
@@ -0,0 +1,49 @@
+package com.moneymanager.repository;
+
+import com.moneymanager.model.MonthlyCategoryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+@Repository
+public interface MonthlyCategoryRollupRepository extends JpaRepository<MonthlyCategoryRollup, Long> {
+    List<MonthlyCategoryRollup> findByPeriodMonth(Integer periodMonth);
+
+    // Buckets are kept when deletes bring them back to zero, so empty months are skipped here
+    @Query("SELECT MAX(r.periodMonth) FROM MonthlyCategoryRollup r WHERE r.transactionCount > 0")
+    Integer findLatestPeriodMonth();
+
+    @Query("SELECT r.type AS type, SUM(r.totalCents) AS total, SUM(r.transactionCount) AS count " +
+           "FROM MonthlyCategoryRollup r WHERE r.periodMonth = :month GROUP BY r.type")
+    List<TypeTotal> sumByTypeForMonth(@Param("month") Integer month);
+
+    // All-time totals; reads one row per month/category/type, not per transaction
+    @Query("SELECT r.type AS type, SUM(r.totalCents) AS total, SUM(r.transactionCount) AS count " +
+           "FROM MonthlyCategoryRollup r GROUP BY r.type HAVING SUM(r.transactionCount) > 0")
+    List<TypeTotal> sumByType();
+
+    @Modifying
+    @Query("UPDATE MonthlyCategoryRollup r " +
+           "SET r.totalCents = r.totalCents + :cents, r.transactionCount = r.transactionCount + :count " +
+           "WHERE r.periodMonth = :month AND r.category = :category AND r.type = :type")
+    int increment(@Param("month") Integer month, @Param("category") String category, @Param("type") String type,
+                  @Param("cents") Long cents, @Param("count") Long count);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyCategoryRollup r")
+    int deleteAllRollups();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "monthly_category_rollups"))
+    @Query(value = "INSERT INTO monthly_category_rollups " +
+                   "(period_month, category_id, type, total_cents, transaction_count) " +
+                   "SELECT YEAR(date) * 100 + MONTH(date), category_id, type, SUM(amount_cents), COUNT(*) " +
+                   "FROM transactions GROUP BY YEAR(date) * 100 + MONTH(date), category_id, type",
+           nativeQuery = true)
+    int insertFromTransactions();
+}
@@ -0,0 +1,15 @@
+package com.moneymanager.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Scalar projection of a SUM/COUNT aggregate grouped by time bucket and type,
+ * and optionally by category id.
+ */
+public interface TimeBucketTotal {
+    LocalDate getPeriodStart();
+    String getType();
+    Integer getCategoryId(); // null unless grouped by category
+    Long getTotal(); // cents
+    Long getCount();
+}
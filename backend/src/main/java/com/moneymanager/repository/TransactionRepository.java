@@ -1,13 +1,63 @@
 package com.moneymanager.repository;
 
 import com.moneymanager.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    // DATE_TRUNC only accepts a literal field, so the bucket unit is switched in SQL
+    String PERIOD_START = "CASE :unit WHEN 'DAY' THEN t.date " +
+                          "WHEN 'WEEK' THEN DATEADD(DAY, 1 - ISO_DAY_OF_WEEK(t.date), t.date) " +
+                          "ELSE CAST(DATE_TRUNC(MONTH, t.date) AS DATE) END";
+
     List<Transaction> findAllByOrderByDateDesc();
-    List<Transaction> findByType(String type);
-    List<Transaction> findByCategory(String category);
+
+    // First page of the keyset pagination on (date desc, id desc), served by idx_transactions_date_id
+    List<Transaction> findAllByOrderByDateDescIdDesc(Pageable pageable);
+
+    // Pages after the cursor. The leading date <= :date is a range H2 can seek to;
+    // the expanded row-value comparison (date, id) < (:date, :id) on its own would
+    // be a full scan.
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE t.date <= :date AND (t.date < :date OR t.id < :id) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    // Date-range reads, served by idx_transactions_date_id
+    List<Transaction> findByDateBetweenOrderByDateDescIdDesc(LocalDate from, LocalDate to, Pageable pageable);
+
+    // Time-series buckets; unit is DAY, WEEK (ISO, Monday start) or MONTH
+    @Query(value = "SELECT " + PERIOD_START + " AS periodStart, t.type AS type, " +
+                   "SUM(t.amount_cents) AS total, COUNT(*) AS count " +
+                   "FROM transactions t WHERE t.date BETWEEN :from AND :to " +
+                   "GROUP BY periodStart, t.type ORDER BY periodStart, t.type",
+           nativeQuery = true)
+    List<TimeBucketTotal> sumByBucketAndType(@Param("unit") String unit,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(value = "SELECT " + PERIOD_START + " AS periodStart, t.type AS type, " +
+                   "t.category_id AS categoryId, SUM(t.amount_cents) AS total, COUNT(*) AS count " +
+                   "FROM transactions t WHERE t.date BETWEEN :from AND :to " +
+                   "GROUP BY periodStart, t.type, t.category_id ORDER BY periodStart, t.type, t.category_id",
+           nativeQuery = true)
+    List<TimeBucketTotal> sumByBucketTypeAndCategory(@Param("unit") String unit,
+                                                    @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Forward-only cursor for exports; rows are fetched from the driver in chunks
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t ORDER BY t.date DESC, t.id DESC")
+    Stream<Transaction> streamAllByOrderByDateDescIdDesc();
 }
@@ -0,0 +1,10 @@
+package com.moneymanager.repository;
+
+/**
+ * Scalar projection of a SUM/COUNT aggregate grouped by transaction type.
+ */
+public interface TypeTotal {
+    String getType();
+    Long getTotal(); // cents
+    Long getCount();
+}
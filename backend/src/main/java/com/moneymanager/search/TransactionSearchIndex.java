@@ -0,0 +1,493 @@
+package com.moneymanager.search;
+
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.repository.TransactionRepository;
+import com.moneymanager.service.CategoryCache;
+import com.moneymanager.util.IntList;
+import com.moneymanager.util.LongIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over transaction descriptions. Each indexed row gets
+ * a dense row number; every token and category keeps a posting list of row
+ * numbers in ascending order, so a query is an intersection of sorted lists
+ * followed by a bounded top-k on (date desc, id desc). Removed rows are
+ * tombstoned and skipped; once they make up a quarter of the rows the index is
+ * compacted by renumbering, which keeps every posting list sorted.
+ */
+@Component
+public class TransactionSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSearchIndex.class);
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION_ROWS = 1024;
+    // Packs (epochDay, id) into one sortable long; ids stay well below 2^40
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Row-aligned columns
+    private long[] sortKeys = new long[INITIAL_CAPACITY];
+    private long[] expenseBits = new long[INITIAL_CAPACITY / 64];
+    private long[] deletedBits = new long[INITIAL_CAPACITY / 64];
+    private int rowCount;
+    private int deletedCount;
+
+    private final LongIntHashMap rowById = new LongIntHashMap(INITIAL_CAPACITY);
+    // Sorted term dictionary so prefix lookups are a range scan
+    private final TreeMap<String, IntList> postingsByToken = new TreeMap<>();
+    private final Map<Integer, IntList> postingsByCategory = new HashMap<>();
+
+    /** Called by ProjectionLoader before the web server starts. */
+    public void load() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> {
+            try (Stream<Transaction> stream = transactionRepository.streamAllByOrderByDateDescIdDesc()) {
+                stream.forEach(transaction -> {
+                    add(transaction);
+                    entityManager.detach(transaction);
+                });
+            }
+        });
+        log.info("Indexed {} transactions ({} distinct tokens) for search in {} ms",
+                rowCount, postingsByToken.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        for (Transaction transaction : event.getRemoved()) {
+            remove(transaction.getId());
+        }
+        for (Transaction transaction : event.getAdded()) {
+            add(transaction);
+        }
+    }
+
+    public void add(Transaction transaction) {
+        // Resolve the category outside the lock; it may need a database round trip
+        int categoryId = categoryCache.idOf(transaction.getCategory());
+        List<String> tokens = tokenize(transaction.getDescription());
+        lock.writeLock().lock();
+        try {
+            if (rowById.get(transaction.getId()) != LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            ensureCapacity(rowCount + 1);
+            int row = rowCount++;
+            sortKeys[row] = sortKey(transaction.getDate().toEpochDay(), transaction.getId());
+            if ("EXPENSE".equals(transaction.getType())) {
+                expenseBits[row >>> 6] |= 1L << row;
+            }
+            for (String token : tokens) {
+                appendPosting(postingsByToken.computeIfAbsent(token, key -> new IntList()), row);
+            }
+            appendPosting(postingsByCategory.computeIfAbsent(categoryId, key -> new IntList()), row);
+            rowById.put(transaction.getId(), row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.remove(id);
+            if (row == LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            deletedBits[row >>> 6] |= 1L << row;
+            deletedCount++;
+            if (deletedCount >= MIN_COMPACTION_ROWS && deletedCount * 4 >= rowCount) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return rowCount - deletedCount;
+    }
+
+    /**
+     * Matches every query token against descriptions; all tokens must match
+     * exactly except the last, which matches as a prefix so results update as
+     * the user types. Returns transaction ids ordered newest first. Throws
+     * IllegalArgumentException when neither the query has a token nor a
+     * category is given: type and dates alone would scan every row, and
+     * unfiltered listing is served by the keyset-paged /api/transactions.
+     *
+     * @param type "INCOME", "EXPENSE" or null for both
+     * @param fromDay inclusive epoch day lower bound, or {@link Long#MIN_VALUE}
+     * @param toDay inclusive epoch day upper bound, or {@link Long#MAX_VALUE}
+     */
+    public SearchHits search(String query, String category, String type, long fromDay, long toDay,
+                             int offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() && category == null) {
+            throw new IllegalArgumentException("Search needs a query or a category");
+        }
+        Integer categoryId = null;
+        if (category != null) {
+            categoryId = categoryCache.findId(category);
+            if (categoryId == null) {
+                return SearchHits.EMPTY;
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            List<int[]> lists = new ArrayList<>();
+            List<Integer> lengths = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean last = i == tokens.size() - 1;
+                int[] postings = last ? prefixPostings(tokens.get(i), lengths) : exactPostings(tokens.get(i), lengths);
+                if (postings == null) {
+                    return SearchHits.EMPTY;
+                }
+                lists.add(postings);
+            }
+            if (categoryId != null) {
+                IntList postings = postingsByCategory.get(categoryId);
+                if (postings == null) {
+                    return SearchHits.EMPTY;
+                }
+                lists.add(postings.array());
+                lengths.add(postings.size());
+            }
+
+            TopK top = new TopK(offset + limit);
+            int matched = intersect(lists, lengths, row -> {
+                if (isDeleted(row)) {
+                    return false;
+                }
+                long day = sortKeys[row] >> ID_BITS;
+                if (day < fromDay || day > toDay) {
+                    return false;
+                }
+                if (type != null && isExpense(row) != "EXPENSE".equals(type)) {
+                    return false;
+                }
+                top.offer(sortKeys[row]);
+                return true;
+            });
+            long[] keys = top.sortedDescending();
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < keys.length; i++) {
+                ids.add(keys[i] & ID_MASK);
+            }
+            return new SearchHits(ids, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lowercased runs of letters and digits, without duplicates. */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Caller must hold the read lock
+    private int[] exactPostings(String token, List<Integer> lengths) {
+        IntList postings = postingsByToken.get(token);
+        if (postings == null) {
+            return null;
+        }
+        lengths.add(postings.size());
+        return postings.array();
+    }
+
+    // Union of the postings of every dictionary term starting with prefix
+    private int[] prefixPostings(String prefix, List<Integer> lengths) {
+        SortedMap<String, IntList> terms = postingsByToken.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        if (terms.size() == 1) {
+            IntList postings = terms.values().iterator().next();
+            lengths.add(postings.size());
+            return postings.array();
+        }
+        int total = 0;
+        for (IntList postings : terms.values()) {
+            total += postings.size();
+        }
+        int[] merged = new int[total];
+        int size = 0;
+        for (IntList postings : terms.values()) {
+            System.arraycopy(postings.array(), 0, merged, size, postings.size());
+            size += postings.size();
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (unique == 0 || merged[unique - 1] != merged[i]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        lengths.add(unique);
+        return merged;
+    }
+
+    /**
+     * Walks the shortest list and gallops through the others; there is always
+     * at least one list. Returns how many rows the visitor accepted.
+     */
+    private int intersect(List<int[]> lists, List<Integer> lengths, RowFilter visitor) {
+        int matched = 0;
+        Integer[] order = new Integer[lists.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(lengths.get(a), lengths.get(b)));
+        int[] driver = lists.get(order[0]);
+        int driverLength = lengths.get(order[0]);
+        int[] cursors = new int[order.length];
+
+        outer:
+        for (int i = 0; i < driverLength; i++) {
+            int row = driver[i];
+            for (int j = 1; j < order.length; j++) {
+                int[] other = lists.get(order[j]);
+                int position = gallop(other, cursors[j], lengths.get(order[j]), row);
+                cursors[j] = position;
+                if (position >= lengths.get(order[j])) {
+                    break outer;
+                }
+                if (other[position] != row) {
+                    continue outer;
+                }
+            }
+            if (visitor.accept(row)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    // First index >= from whose value is >= target
+    private static int gallop(int[] values, int from, int length, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < length && values[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, length);
+        int index = Arrays.binarySearch(values, low, high, target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Caller must hold the write lock. Live rows keep their relative order, so
+    // renumbered posting lists stay sorted.
+    private void compact() {
+        long start = System.currentTimeMillis();
+        int[] newRow = new int[rowCount];
+        int live = 0;
+        for (int row = 0; row < rowCount; row++) {
+            boolean expense = isExpense(row);
+            expenseBits[row >>> 6] &= ~(1L << row);
+            if (isDeleted(row)) {
+                newRow[row] = -1;
+                continue;
+            }
+            newRow[row] = live;
+            sortKeys[live] = sortKeys[row];
+            if (expense) {
+                expenseBits[live >>> 6] |= 1L << live;
+            }
+            rowById.put(sortKeys[live] & ID_MASK, live);
+            live++;
+        }
+        postingsByToken.replaceAll((token, postings) -> renumber(postings, newRow));
+        postingsByToken.values().removeIf(IntList::isEmpty);
+        postingsByCategory.replaceAll((category, postings) -> renumber(postings, newRow));
+        postingsByCategory.values().removeIf(IntList::isEmpty);
+        Arrays.fill(deletedBits, 0L);
+        log.debug("Compacted search index from {} to {} rows in {} ms",
+                rowCount, live, System.currentTimeMillis() - start);
+        rowCount = live;
+        deletedCount = 0;
+    }
+
+    private static IntList renumber(IntList postings, int[] newRow) {
+        IntList renumbered = new IntList(postings.size());
+        for (int i = 0; i < postings.size(); i++) {
+            int row = newRow[postings.get(i)];
+            if (row >= 0) {
+                renumbered.add(row);
+            }
+        }
+        return renumbered;
+    }
+
+    private static void appendPosting(IntList postings, int row) {
+        if (postings.isEmpty() || postings.last() != row) {
+            postings.add(row);
+        }
+    }
+
+    private static long sortKey(long epochDay, long id) {
+        return (epochDay << ID_BITS) | (id & ID_MASK);
+    }
+
+    private boolean isExpense(int row) {
+        return (expenseBits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private boolean isDeleted(int row) {
+        return (deletedBits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= sortKeys.length) {
+            return;
+        }
+        int capacity = Math.max(required, sortKeys.length * 2);
+        sortKeys = Arrays.copyOf(sortKeys, capacity);
+        expenseBits = Arrays.copyOf(expenseBits, (capacity + 63) / 64);
+        deletedBits = Arrays.copyOf(deletedBits, (capacity + 63) / 64);
+    }
+
+    private interface RowFilter {
+        boolean accept(int row);
+    }
+
+    /** Keeps the k largest sort keys in a primitive min-heap. */
+    private static class TopK {
+        private final long[] heap;
+        private int size;
+
+        TopK(int k) {
+            heap = new long[k];
+        }
+
+        void offer(long key) {
+            if (heap.length == 0) {
+                return;
+            }
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long[] sortedDescending() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+                long swap = sorted[i];
+                sorted[i] = sorted[j];
+                sorted[j] = swap;
+            }
+            return sorted;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && heap[right] < heap[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /** Matching ids for the requested window plus the total match count. */
+    public static class SearchHits {
+        static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+
+        public final List<Long> ids;
+        public final int total;
+
+        SearchHits(List<Long> ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+    }
+}
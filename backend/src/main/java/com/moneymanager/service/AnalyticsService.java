@@ -0,0 +1,108 @@
+package com.moneymanager.service;
+
+import com.moneymanager.analytics.TransactionColumnStore;
+import com.moneymanager.analytics.TransactionColumnStore.BucketSeries;
+import com.moneymanager.analytics.TransactionColumnStore.CategoryTotals;
+import com.moneymanager.dto.AnalyticsBucketDTO;
+import com.moneymanager.dto.CategoryTotalDTO;
+import com.moneymanager.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class AnalyticsService {
+
+    public static final String BUCKET_MONTH = "month";
+    public static final String BUCKET_WEEK = "week";
+
+    @Autowired
+    private TransactionColumnStore columnStore;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    public List<AnalyticsBucketDTO> getIncomeVsExpense(String bucket, LocalDate from, LocalDate to) {
+        if (!BUCKET_MONTH.equals(bucket) && !BUCKET_WEEK.equals(bucket)) {
+            throw new IllegalArgumentException("bucket must be " + BUCKET_MONTH + " or " + BUCKET_WEEK);
+        }
+        checkRange(from, to);
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        boolean weekly = BUCKET_WEEK.equals(bucket);
+        // Same cap as /api/transactions/buckets
+        BucketSeries series = weekly
+                ? columnStore.sumByWeek(fromDay, toDay, TransactionService.MAX_BUCKETS)
+                : columnStore.sumByMonth(fromDay, toDay, TransactionService.MAX_BUCKETS);
+
+        List<AnalyticsBucketDTO> buckets = new ArrayList<>(series.counts.length);
+        for (int i = 0; i < series.counts.length; i++) {
+            String period;
+            LocalDate start;
+            if (weekly) {
+                start = LocalDate.ofEpochDay(TransactionColumnStore.firstDayOfWeek(series.first + i));
+                period = String.format("%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR),
+                        start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            } else {
+                int month = series.first + i;
+                YearMonth yearMonth = YearMonth.of(month / 12, month % 12 + 1);
+                start = yearMonth.atDay(1);
+                period = yearMonth.toString();
+            }
+            buckets.add(new AnalyticsBucketDTO(period, start, toAmount(series.incomeCents[i]),
+                    toAmount(series.expenseCents[i]), series.counts[i]));
+        }
+        return buckets;
+    }
+
+    public List<CategoryTotalDTO> getCategoryTotals(String type, LocalDate from, LocalDate to) {
+        if (!"INCOME".equals(type) && !"EXPENSE".equals(type)) {
+            throw new IllegalArgumentException("type must be INCOME or EXPENSE");
+        }
+        checkRange(from, to);
+        CategoryTotals totals = columnStore.sumByCategory("EXPENSE".equals(type), fromDay(from), toDay(to));
+        long grandTotal = 0;
+        for (long cents : totals.cents) {
+            grandTotal += cents;
+        }
+
+        List<CategoryTotalDTO> result = new ArrayList<>();
+        for (int id = 0; id < totals.counts.length; id++) {
+            if (totals.counts[id] == 0) {
+                continue;
+            }
+            double share = grandTotal > 0 ? Math.round(totals.cents[id] * 10000.0 / grandTotal) / 100.0 : 0.0;
+            result.add(new CategoryTotalDTO(categoryCache.nameOf(id), toAmount(totals.cents[id]), totals.counts[id], share));
+        }
+        result.sort((a, b) -> b.getTotal().compareTo(a.getTotal()));
+        return result;
+    }
+
+    public List<CategoryTotalDTO> getTopCategories(String type, int limit, LocalDate from, LocalDate to) {
+        List<CategoryTotalDTO> totals = getCategoryTotals(type, from, to);
+        return totals.subList(0, Math.min(Math.max(limit, 0), totals.size()));
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    private int fromDay(LocalDate from) {
+        return from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private int toDay(LocalDate to) {
+        return to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    private Money toAmount(long cents) {
+        return Money.ofCents(cents);
+    }
+}
@@ -0,0 +1,336 @@
+package com.moneymanager.service;
+
+import com.moneymanager.event.BillDueEvent;
+import com.moneymanager.event.BillsChangedEvent;
+import com.moneymanager.model.Bill;
+import com.moneymanager.repository.BillOccurrenceSkipRepository;
+import com.moneymanager.repository.BillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires reminder and overdue notifications for unpaid bills at the moment
+ * they become due. Timers live in a priority queue ordered by fire time and a
+ * single thread sleeps until the earliest one. Only bills due within a rolling
+ * window are held in memory; the window is filled from the (is_paid, due_date)
+ * index and extended as time passes. Each stage is claimed with a conditional
+ * UPDATE on notified_stage, so a restart re-arms from the database and never
+ * repeats a notification that was already sent. Occurrences of recurring
+ * series are armed from the series rule without a row; the first notification
+ * materializes the occurrence, which then carries the claimed stage.
+ */
+@Component
+public class BillScheduler {
+
+    public static final int STAGE_REMINDER = 1;
+    public static final int STAGE_OVERDUE = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(BillScheduler.class);
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BillOccurrenceSkipRepository skipRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${moneymanager.bills.reminder-days:3}")
+    private int reminderDays;
+
+    @Value("${moneymanager.bills.window-days:30}")
+    private int windowDays;
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final ScheduledExecutorService timerThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bill-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PriorityQueue<Timer> queue = new PriorityQueue<>(Comparator.comparingLong(timer -> timer.fireAt));
+    // Due date each bill is currently armed for; timers for any other date are stale
+    private final Map<Long, LocalDate> armedDueDates = new HashMap<>();
+    // Generation each series is armed with; bumped whenever the series rule changes
+    private final Map<Long, Integer> armedSeries = new HashMap<>();
+    private int seriesGeneration;
+    private LocalDate loadedUntil;
+    // Bills changed while extendWindow reads; onBillChanged already armed them from fresher state
+    private Set<Long> changedWhileLoading;
+    private final Object windowLock = new Object();
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpAt = Long.MAX_VALUE;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        extendWindow();
+        timerThread.scheduleAtFixedRate(this::extendWindow, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    void stop() {
+        timerThread.shutdownNow();
+    }
+
+    /** Arms, re-arms or disarms a bill after it was created or changed. */
+    public synchronized void onBillChanged(Bill bill) {
+        if (changedWhileLoading != null) {
+            changedWhileLoading.add(bill.getId());
+        }
+        armedDueDates.remove(bill.getId());
+        armedSeries.remove(bill.getId());
+        if (bill.isRecurring()) {
+            if (loadedUntil != null) {
+                armSeries(bill, firstArmedDate(), loadedUntil);
+                rescheduleWakeUp();
+            }
+            return;
+        }
+        if (loadedUntil == null || bill.getIsPaid() || bill.getNotifiedStage() >= STAGE_OVERDUE
+                || bill.getDueDate().isAfter(loadedUntil)) {
+            // Bills beyond the window are picked up when it is extended
+            return;
+        }
+        arm(bill);
+        rescheduleWakeUp();
+    }
+
+    public synchronized void onBillDeleted(Long id) {
+        if (changedWhileLoading != null) {
+            changedWhileLoading.add(id);
+        }
+        armedDueDates.remove(id);
+        armedSeries.remove(id);
+    }
+
+    private void extendWindow() {
+        synchronized (windowLock) {
+            LocalDate until = LocalDate.now(clock).plusDays(reminderDays + windowDays);
+            LocalDate after;
+            synchronized (this) {
+                after = loadedUntil;
+                if (after != null && !until.isAfter(after)) {
+                    return;
+                }
+                // From here on onBillChanged arms against the new window and records the bill,
+                // so the possibly older copy read below never overwrites it
+                loadedUntil = until;
+                changedWhileLoading = new HashSet<>();
+            }
+            boolean loaded = false;
+            try {
+                List<Bill> bills = after == null
+                        ? billRepository.findPendingNotification(STAGE_OVERDUE, until)
+                        : billRepository.findPendingNotification(STAGE_OVERDUE, after, until);
+                // Past occurrences of a series are not replayed, except the one whose overdue moment is today
+                LocalDate seriesFrom = after == null ? firstArmedDate() : after.plusDays(1);
+                List<Bill> templates = billRepository.findActiveTemplates(seriesFrom, until);
+                synchronized (this) {
+                    for (Bill bill : bills) {
+                        if (!changedWhileLoading.contains(bill.getId())) {
+                            armedDueDates.remove(bill.getId());
+                            arm(bill);
+                        }
+                    }
+                    for (Bill template : templates) {
+                        if (!changedWhileLoading.contains(template.getId())) {
+                            armSeries(template, seriesFrom, until);
+                        }
+                    }
+                    rescheduleWakeUp();
+                }
+                loaded = true;
+                log.info("Bill scheduler armed {} bills and {} recurring series due up to {}",
+                        bills.size(), templates.size(), until);
+            } finally {
+                synchronized (this) {
+                    changedWhileLoading = null;
+                    if (!loaded) {
+                        // Retried on the next extension
+                        loadedUntil = after;
+                    }
+                }
+            }
+        }
+    }
+
+    private LocalDate firstArmedDate() {
+        return LocalDate.now(clock).minusDays(1);
+    }
+
+    // Caller must hold the monitor
+    private void armSeries(Bill template, LocalDate from, LocalDate until) {
+        int generation = armedSeries.computeIfAbsent(template.getId(), id -> ++seriesGeneration);
+        for (LocalDate dueDate : template.occurrencesBetween(from, until)) {
+            addTimers(template.getId(), template.getId(), dueDate, 0, generation);
+        }
+    }
+
+    // Caller must hold the monitor
+    private void arm(Bill bill) {
+        armedDueDates.put(bill.getId(), bill.getDueDate());
+        addTimers(bill.getId(), null, bill.getDueDate(), bill.getNotifiedStage(), 0);
+    }
+
+    // Caller must hold the monitor
+    private void addTimers(Long billId, Long seriesId, LocalDate dueDate, int notifiedStage, int generation) {
+        long overdueAt = dueDate.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        // A reminder is pointless once the bill is already overdue
+        if (notifiedStage < STAGE_REMINDER && overdueAt > clock.millis()) {
+            long remindAt = dueDate.minusDays(reminderDays).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+            queue.add(new Timer(billId, seriesId, dueDate, STAGE_REMINDER, remindAt, generation));
+        }
+        queue.add(new Timer(billId, seriesId, dueDate, STAGE_OVERDUE, overdueAt, generation));
+    }
+
+    // Caller must hold the monitor
+    private boolean isArmed(Timer timer) {
+        if (timer.seriesId != null) {
+            Integer generation = armedSeries.get(timer.seriesId);
+            return generation != null && generation == timer.generation;
+        }
+        return timer.dueDate.equals(armedDueDates.get(timer.billId));
+    }
+
+    // Caller must hold the monitor
+    private void rescheduleWakeUp() {
+        Timer head = queue.peek();
+        if (head == null || head.fireAt >= wakeUpAt) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        wakeUpAt = head.fireAt;
+        wakeUp = timerThread.schedule(this::runDueTimers, Math.max(0, head.fireAt - clock.millis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void runDueTimers() {
+        List<Timer> due = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            while (!queue.isEmpty() && queue.peek().fireAt <= now) {
+                Timer timer = queue.poll();
+                if (isArmed(timer)) {
+                    due.add(timer);
+                }
+            }
+            wakeUpAt = Long.MAX_VALUE;
+            wakeUp = null;
+            rescheduleWakeUp();
+        }
+        for (Timer timer : due) {
+            try {
+                fire(timer);
+            } catch (RuntimeException e) {
+                log.warn("Could not fire bill notification for bill {}: {}", timer.billId, e.getMessage());
+            }
+        }
+    }
+
+    private void fire(Timer timer) {
+        Bill bill;
+        if (timer.seriesId == null) {
+            bill = claim(timer.billId, timer);
+        } else {
+            try {
+                bill = claimOccurrence(timer);
+            } catch (DataIntegrityViolationException e) {
+                // The occurrence was materialized concurrently; claim on its row instead
+                bill = claimOccurrence(timer);
+            }
+        }
+        if (timer.stage == STAGE_OVERDUE && timer.seriesId == null) {
+            synchronized (this) {
+                armedDueDates.remove(timer.billId, timer.dueDate);
+            }
+        }
+        if (bill == null) {
+            // Paid, rescheduled or already notified since the timer was armed
+            return;
+        }
+        String kind = timer.stage == STAGE_OVERDUE ? BillDueEvent.OVERDUE : BillDueEvent.REMINDER;
+        log.info("Bill {} '{}' due {}: {}", bill.getId(), bill.getDescription(), bill.getDueDate(), kind);
+        eventPublisher.publishEvent(new BillDueEvent(bill, kind));
+    }
+
+    private Bill claim(Long billId, Timer timer) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                billRepository.claimStage(billId, timer.stage, timer.dueDate) == 1
+                        ? billRepository.findById(billId).orElse(null)
+                        : null);
+    }
+
+    // Materializes the occurrence with the stage already claimed, or claims on its existing row
+    private Bill claimOccurrence(Timer timer) {
+        Optional<Bill> existing = billRepository.findBySeriesIdAndOccurrenceDate(timer.seriesId, timer.dueDate);
+        if (existing.isPresent()) {
+            return claim(existing.get().getId(), timer);
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Bill template = billRepository.findByIdForUpdate(timer.seriesId).orElse(null);
+            if (template == null || !template.isRecurring() || !template.occursOn(timer.dueDate)
+                    || skipRepository.existsBySeriesIdAndOccurrenceDate(timer.seriesId, timer.dueDate)) {
+                return null;
+            }
+            Bill occurrence = template.newOccurrence(timer.dueDate);
+            occurrence.setNotifiedStage(timer.stage);
+            Bill saved = billRepository.saveAndFlush(occurrence);
+            tableVersions.touch(TableVersions.BILLS);
+            eventPublisher.publishEvent(new BillsChangedEvent(List.of(saved), List.of()));
+            return saved;
+        });
+    }
+
+    private static final class Timer {
+        final Long billId;
+        // Set for occurrences of a series that may not have a row yet
+        final Long seriesId;
+        final LocalDate dueDate;
+        final int stage;
+        final long fireAt;
+        final int generation;
+
+        Timer(Long billId, Long seriesId, LocalDate dueDate, int stage, long fireAt, int generation) {
+            this.billId = billId;
+            this.seriesId = seriesId;
+            this.dueDate = dueDate;
+            this.stage = stage;
+            this.fireAt = fireAt;
+            this.generation = generation;
+        }
+    }
+}
@@ -1,47 +1,166 @@
 package com.moneymanager.service;
 
+import com.moneymanager.dto.BatchItemResultDTO;
+import com.moneymanager.dto.BatchResultDTO;
+import com.moneymanager.dto.BillOccurrenceDTO;
+import com.moneymanager.event.BillsChangedEvent;
 import com.moneymanager.model.Bill;
+import com.moneymanager.model.BillOccurrenceSkip;
+import com.moneymanager.repository.BillOccurrenceSkipRepository;
 import com.moneymanager.repository.BillRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class BillService {
 
+    public static final int MAX_OCCURRENCE_DAYS = 400;
+
     @Autowired
     private BillRepository billRepository;
 
+    @Autowired
+    private BillOccurrenceSkipRepository skipRepository;
+
+    @Autowired
+    private BillScheduler billScheduler;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${moneymanager.batch.max-items:500}")
+    private int maxBatchItems;
+
     public List<Bill> getAllBills() {
         return billRepository.findAll();
     }
 
     public List<Bill> getUnpaidBills() {
-        return billRepository.findByIsPaidFalseOrderByDueDateAsc();
+        return billRepository.findByIsPaidFalseAndRecurrenceIsNullOrderByDueDateAsc();
+    }
+
+    public List<BillOccurrenceDTO> getUpcomingBills(int days) {
+        LocalDate today = LocalDate.now();
+        List<BillOccurrenceDTO> upcoming = new ArrayList<>();
+        for (BillOccurrenceDTO occurrence : getOccurrences(today, today.plusDays(days))) {
+            if (!occurrence.getIsPaid()) {
+                upcoming.add(occurrence);
+            }
+        }
+        return upcoming;
+    }
+
+    /**
+     * Every bill due within [from, to]: stored bills plus the occurrences of
+     * recurring series expanded on the fly. Only occurrences that were paid,
+     * edited or notified have rows, and those replace their virtual
+     * counterpart; deleted occurrences leave a skip that hides it. So the cost is bounded by the window rather than by how
+     * long a series has been running.
+     */
+    public List<BillOccurrenceDTO> getOccurrences(LocalDate from, LocalDate to) {
+        List<BillOccurrenceDTO> occurrences = new ArrayList<>();
+        List<Bill> templates = billRepository.findActiveTemplates(from, to);
+        Map<Long, Bill> templatesById = new HashMap<>();
+        for (Bill template : templates) {
+            templatesById.put(template.getId(), template);
+        }
+
+        for (Bill bill : billRepository.findByRecurrenceIsNullAndDueDateBetweenOrderByDueDateAsc(from, to)) {
+            Bill template = bill.getSeriesId() != null ? templatesById.get(bill.getSeriesId()) : null;
+            occurrences.add(BillOccurrenceDTO.of(bill, template != null ? template.getRecurrence() : null));
+        }
+
+        if (!templates.isEmpty()) {
+            Set<String> replaced = new HashSet<>();
+            for (Bill bill : billRepository.findBySeriesIdInAndOccurrenceDateBetween(templatesById.keySet(), from, to)) {
+                replaced.add(bill.getSeriesId() + "|" + bill.getOccurrenceDate());
+            }
+            for (BillOccurrenceSkip skip : skipRepository.findBySeriesIdInAndOccurrenceDateBetween(
+                    templatesById.keySet(), from, to)) {
+                replaced.add(skip.getSeriesId() + "|" + skip.getOccurrenceDate());
+            }
+            for (Bill template : templates) {
+                for (LocalDate date : template.occurrencesBetween(from, to)) {
+                    if (!replaced.contains(template.getId() + "|" + date)) {
+                        occurrences.add(BillOccurrenceDTO.virtual(template, date));
+                    }
+                }
+            }
+            occurrences.sort(Comparator.comparing(BillOccurrenceDTO::getDueDate));
+        }
+        return occurrences;
     }
 
     public Bill saveBill(Bill bill) {
-        return billRepository.save(bill);
+        Bill saved = billRepository.save(bill);
+        tableVersions.touch(TableVersions.BILLS);
+        eventPublisher.publishEvent(new BillsChangedEvent(List.of(saved), List.of()));
+        billScheduler.onBillChanged(saved);
+        return saved;
     }
 
+    /**
+     * Applies a full update; null if the bill does not exist. Throws
+     * IllegalArgumentException if the update would move the schedule of a
+     * series that already has materialized or deleted occurrences.
+     */
     public Bill updateBill(Long id, Bill billDetails) {
-        Optional<Bill> billOptional = billRepository.findById(id);
-        if (billOptional.isPresent()) {
-            Bill bill = billOptional.get();
-            bill.setDescription(billDetails.getDescription());
-            bill.setAmount(billDetails.getAmount());
-            bill.setDueDate(billDetails.getDueDate());
-            bill.setCategory(billDetails.getCategory());
-            bill.setIsPaid(billDetails.getIsPaid());
+        Bill saved = new TransactionTemplate(transactionManager).execute(status -> {
+            Bill bill = billRepository.findByIdForUpdate(id).orElse(null);
+            if (bill == null) {
+                return null;
+            }
+            String error = scheduleChangeError(bill, billDetails);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            applyDetails(bill, billDetails);
             return billRepository.save(bill);
+        });
+        if (saved != null) {
+            tableVersions.touch(TableVersions.BILLS);
+            eventPublisher.publishEvent(new BillsChangedEvent(List.of(saved), List.of()));
+            billScheduler.onBillChanged(saved);
         }
-        return null;
+        return saved;
     }
 
+    @Transactional
     public void deleteBill(Long id) {
+        skipDeletedOccurrences(List.of(id));
+        billRepository.detachSeries(List.of(id));
         billRepository.deleteById(id);
+        tableVersions.touch(TableVersions.BILLS);
+        eventPublisher.publishEvent(new BillsChangedEvent(List.of(), List.of(id)));
+        billScheduler.onBillDeleted(id);
     }
 
     public Bill toggleBillStatus(Long id) {
@@ -49,8 +168,290 @@ public class BillService {
         if (billOptional.isPresent()) {
             Bill bill = billOptional.get();
             bill.setIsPaid(!bill.getIsPaid());
-            return billRepository.save(bill);
+            Bill saved = billRepository.save(bill);
+            tableVersions.touch(TableVersions.BILLS);
+            eventPublisher.publishEvent(new BillsChangedEvent(List.of(saved), List.of()));
+            billScheduler.onBillChanged(saved);
+            return saved;
         }
         return null;
     }
+
+    /** Creates every valid bill in one database transaction with batched inserts. */
+    public BatchResultDTO createBills(List<Bill> bills) {
+        checkBatchSize(bills.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Bill> valid = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < bills.size(); i++) {
+            Bill bill = bills.get(i);
+            String error = validationError(bill);
+            if (error != null) {
+                results.add(BatchItemResultDTO.invalid(i, null, error));
+                continue;
+            }
+            bill.setId(null);
+            valid.add(bill);
+            indexes.add(i);
+        }
+        if (!valid.isEmpty()) {
+            prepareCategories(valid);
+            List<Bill> saved = new TransactionTemplate(transactionManager).execute(status -> billRepository.saveAll(valid));
+            tableVersions.touch(TableVersions.BILLS);
+            eventPublisher.publishEvent(new BillsChangedEvent(saved, List.of()));
+            for (int i = 0; i < saved.size(); i++) {
+                billScheduler.onBillChanged(saved.get(i));
+                results.add(BatchItemResultDTO.ok(indexes.get(i), saved.get(i).getId()));
+            }
+        }
+        return new BatchResultDTO(results);
+    }
+
+    /** Applies full updates to every bill found by id in one database transaction. */
+    public BatchResultDTO updateBills(List<Bill> bills) {
+        checkBatchSize(bills.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Bill> valid = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < bills.size(); i++) {
+            Bill bill = bills.get(i);
+            String error = bill != null && bill.getId() == null ? "id is required" : validationError(bill);
+            if (error == null && !seen.add(bill.getId())) {
+                error = "Duplicate id in batch";
+            }
+            if (error != null) {
+                results.add(BatchItemResultDTO.invalid(i, bill != null ? bill.getId() : null, error));
+            } else {
+                valid.put(i, bill);
+            }
+        }
+        if (valid.isEmpty()) {
+            return new BatchResultDTO(results);
+        }
+        prepareCategories(valid.values());
+        List<Bill> changed = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tableVersions.touch(TableVersions.BILLS);
+            Map<Long, Bill> existing = new HashMap<>();
+            for (Bill bill : billRepository.findAllByIdForUpdate(seen)) {
+                existing.put(bill.getId(), bill);
+            }
+            valid.forEach((index, details) -> {
+                Bill bill = existing.get(details.getId());
+                if (bill == null) {
+                    results.add(BatchItemResultDTO.notFound(index, details.getId()));
+                    return;
+                }
+                String error = scheduleChangeError(bill, details);
+                if (error != null) {
+                    results.add(BatchItemResultDTO.invalid(index, bill.getId(), error));
+                    return;
+                }
+                applyDetails(bill, details);
+                changed.add(bill);
+                results.add(BatchItemResultDTO.ok(index, bill.getId()));
+            });
+        });
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new BillsChangedEvent(changed, List.of()));
+        }
+        changed.forEach(billScheduler::onBillChanged);
+        return new BatchResultDTO(results);
+    }
+
+    /** Deletes the given bills with one bulk DELETE, detaching occurrences of deleted series. */
+    public BatchResultDTO deleteBills(List<Long> ids) {
+        return applyToExisting(ids, existing -> {
+            skipDeletedOccurrences(existing);
+            billRepository.detachSeries(existing);
+            billRepository.deleteAllByIdInBatch(existing);
+            return List.of();
+        }, deleted -> {
+            deleted.forEach(billScheduler::onBillDeleted);
+            if (!deleted.isEmpty()) {
+                eventPublisher.publishEvent(new BillsChangedEvent(List.of(), deleted));
+            }
+        });
+    }
+
+    /** Flips the paid flag of the given bills with one bulk UPDATE. */
+    public BatchResultDTO toggleBillStatuses(List<Long> ids) {
+        return applyToExisting(ids, existing -> {
+            billRepository.toggleStatus(existing);
+            return billRepository.findAllById(existing);
+        }, toggled -> { });
+    }
+
+    public Bill updateOccurrence(Long seriesId, LocalDate date, Bill billDetails) {
+        Bill occurrence = materializeOccurrence(seriesId, date);
+        return occurrence != null ? updateBill(occurrence.getId(), billDetails) : null;
+    }
+
+    public Bill toggleOccurrenceStatus(Long seriesId, LocalDate date) {
+        Bill occurrence = materializeOccurrence(seriesId, date);
+        return occurrence != null ? toggleBillStatus(occurrence.getId()) : null;
+    }
+
+    /** Rules for recurring bills; null when the bill is valid. */
+    public static String recurrenceError(Bill bill) {
+        if (bill.getRecurrence() == null) {
+            return null;
+        }
+        if (bill.getRecurrenceInterval() != null && bill.getRecurrenceInterval() < 1) {
+            return "recurrenceInterval must be at least 1";
+        }
+        if (bill.getRecurrenceEnd() != null && bill.getDueDate() != null && bill.getRecurrenceEnd().isBefore(bill.getDueDate())) {
+            return "recurrenceEnd must not be before dueDate";
+        }
+        return null;
+    }
+
+    private static String validationError(Bill bill) {
+        if (bill == null) {
+            return "Item is empty";
+        }
+        if (bill.getDescription() == null || bill.getDescription().isEmpty()) {
+            return "description is required";
+        }
+        if (bill.getAmount() == null || !bill.getAmount().isPositive()) {
+            return "amount must be positive";
+        }
+        if (bill.getDueDate() == null) {
+            return "dueDate is required";
+        }
+        if (bill.getCategory() == null || bill.getCategory().isEmpty()) {
+            return "category is required";
+        }
+        if (bill.getIsPaid() == null) {
+            bill.setIsPaid(false);
+        }
+        return recurrenceError(bill);
+    }
+
+    // Materialized occurrences and skips are keyed by the date the old schedule produced;
+    // moving the anchor or the rule would orphan them. Caller holds the template's row lock
+    private String scheduleChangeError(Bill bill, Bill billDetails) {
+        if (!bill.isRecurring() || bill.getSeriesId() != null) {
+            return null;
+        }
+        boolean moved = !bill.getDueDate().equals(billDetails.getDueDate())
+                || bill.getRecurrence() != billDetails.getRecurrence()
+                || (billDetails.isRecurring() && bill.getEffectiveInterval() != billDetails.getEffectiveInterval());
+        if (moved && (billRepository.existsBySeriesId(bill.getId()) || skipRepository.existsBySeriesId(bill.getId()))) {
+            return "The schedule of a series with edited, paid or deleted occurrences cannot be changed";
+        }
+        return null;
+    }
+
+    private void applyDetails(Bill bill, Bill billDetails) {
+        if (!bill.getDueDate().equals(billDetails.getDueDate())) {
+            // A new due date gets its own reminder and overdue notifications
+            bill.setNotifiedStage(0);
+        }
+        bill.setDescription(billDetails.getDescription());
+        bill.setAmount(billDetails.getAmount());
+        bill.setDueDate(billDetails.getDueDate());
+        bill.setCategory(billDetails.getCategory());
+        bill.setIsPaid(billDetails.getIsPaid());
+        if (bill.getSeriesId() == null) {
+            // A materialized occurrence stays part of its series
+            bill.setRecurrence(billDetails.getRecurrence());
+            bill.setRecurrenceInterval(billDetails.getRecurrenceInterval());
+            bill.setRecurrenceEnd(billDetails.getRecurrenceEnd());
+        }
+    }
+
+    // Runs a bulk statement over the ids that exist in one database transaction;
+    // rows the statement returns are handed to the scheduler after commit
+    private BatchResultDTO applyToExisting(List<Long> ids, Function<Set<Long>, List<Bill>> statement,
+                                           Consumer<Set<Long>> afterCommit) {
+        checkBatchSize(ids.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Long> valid = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null || !seen.add(id)) {
+                results.add(BatchItemResultDTO.invalid(i, id, id == null ? "id is required" : "Duplicate id in batch"));
+            } else {
+                valid.put(i, id);
+            }
+        }
+        Set<Long> existing = new HashSet<>();
+        List<Bill> affected = new ArrayList<>();
+        if (!valid.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                existing.addAll(billRepository.findExistingIds(seen));
+                if (!existing.isEmpty()) {
+                    affected.addAll(statement.apply(existing));
+                    tableVersions.touch(TableVersions.BILLS);
+                }
+            });
+        }
+        afterCommit.accept(existing);
+        if (!affected.isEmpty()) {
+            eventPublisher.publishEvent(new BillsChangedEvent(affected, List.of()));
+        }
+        affected.forEach(billScheduler::onBillChanged);
+        valid.forEach((index, id) -> results.add(existing.contains(id)
+                ? BatchItemResultDTO.ok(index, id)
+                : BatchItemResultDTO.notFound(index, id)));
+        return new BatchResultDTO(results);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchItems) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxBatchItems + " items");
+        }
+    }
+
+    // Tombstones the occurrences among bills about to be deleted, so their series does not
+    // expand them again, and drops the skips of series being deleted. Caller holds the transaction
+    private void skipDeletedOccurrences(Collection<Long> ids) {
+        List<BillOccurrenceSkip> skips = new ArrayList<>();
+        for (Bill bill : billRepository.findAllById(ids)) {
+            if (bill.getSeriesId() != null) {
+                skips.add(new BillOccurrenceSkip(bill.getSeriesId(), bill.getOccurrenceDate()));
+            }
+        }
+        skipRepository.saveAll(skips);
+        skipRepository.deleteBySeriesIds(ids);
+    }
+
+    // New categories are created before the write transaction opens
+    private void prepareCategories(Collection<Bill> bills) {
+        for (Bill bill : bills) {
+            categoryCache.idOf(bill.getCategory());
+        }
+    }
+
+    /**
+     * Returns the row of one occurrence of a series, creating it on first use.
+     * Null if the series does not exist or has no occurrence on that date,
+     * including one that was deleted.
+     */
+    public Bill materializeOccurrence(Long seriesId, LocalDate date) {
+        Optional<Bill> existing = billRepository.findBySeriesIdAndOccurrenceDate(seriesId, date);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            Bill occurrence = new TransactionTemplate(transactionManager).execute(status -> {
+                Bill template = billRepository.findByIdForUpdate(seriesId).orElse(null);
+                if (template == null || !template.isRecurring() || !template.occursOn(date)
+                        || skipRepository.existsBySeriesIdAndOccurrenceDate(seriesId, date)) {
+                    return null;
+                }
+                return billRepository.saveAndFlush(template.newOccurrence(date));
+            });
+            if (occurrence != null) {
+                tableVersions.touch(TableVersions.BILLS);
+                eventPublisher.publishEvent(new BillsChangedEvent(List.of(occurrence), List.of()));
+            }
+            return occurrence;
+        } catch (DataIntegrityViolationException e) {
+            // Materialized concurrently, e.g. by the bill scheduler
+            return billRepository.findBySeriesIdAndOccurrenceDate(seriesId, date).orElse(null);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package com.moneymanager.service;
+
+import com.moneymanager.dto.BudgetAlertDTO;
+import com.moneymanager.event.BudgetAlertEvent;
+import com.moneymanager.event.BudgetSpendChangedEvent;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Raises an alert when a budget's spend crosses one of the configured
+ * percentages of its allocation and publishes it as a {@link BudgetAlertEvent},
+ * which {@link LedgerStreamService} queues to its Server-Sent Events
+ * subscribers without blocking the writer. Crossings are evaluated from the before/after values carried by
+ * each {@link BudgetSpendChangedEvent}, so nothing is re-read or polled.
+ * Each threshold alerts once per budget until spend falls back below it.
+ */
+@Service
+public class BudgetAlertService {
+
+    public static final String LEVEL_WARNING = "WARNING";
+    public static final String LEVEL_EXCEEDED = "EXCEEDED";
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertService.class);
+    private static final int RECENT_ALERTS = 50;
+
+    @Autowired
+    private SettingsService settingsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${moneymanager.budget.alert-thresholds:80,100}")
+    private int[] thresholds;
+
+    // Highest threshold already alerted per budget id
+    private final Map<Long, Integer> alertedThreshold = new ConcurrentHashMap<>();
+    private final Deque<BudgetAlertDTO> recentAlerts = new ArrayDeque<>();
+    private final AtomicLong alertIds = new AtomicLong();
+
+    @PostConstruct
+    void sortThresholds() {
+        Arrays.sort(thresholds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetSpendChanged(BudgetSpendChangedEvent event) {
+        int previous = reachedThreshold(event.getPreviousSpentCents(), event.getPreviousAllocatedCents());
+        int current = reachedThreshold(event.getSpentCents(), event.getAllocatedCents());
+        if (previous == current && !alertedThreshold.containsKey(event.getBudgetId())) {
+            return;
+        }
+
+        int[] crossed = new int[1];
+        alertedThreshold.compute(event.getBudgetId(), (id, alerted) -> {
+            int last = alerted != null ? alerted : previous;
+            if (current > last) {
+                crossed[0] = current;
+            }
+            // Dropping below a threshold re-arms it
+            return current;
+        });
+        if (crossed[0] > 0) {
+            raise(event, crossed[0]);
+        }
+    }
+
+    public List<BudgetAlertDTO> getRecentAlerts() {
+        synchronized (recentAlerts) {
+            return new ArrayList<>(recentAlerts);
+        }
+    }
+
+    private void raise(BudgetSpendChangedEvent event, int threshold) {
+        Settings settings = settingsService.getSettings();
+        boolean exceeded = threshold >= 100;
+        if (exceeded ? !settings.isSpendingLimits() : !settings.isBudgetAlerts()) {
+            return;
+        }
+        int percentage = Money.percent(event.getSpentCents(), event.getAllocatedCents());
+        Money allocated = Money.ofCents(event.getAllocatedCents());
+        String message = exceeded
+                ? String.format("%s budget exceeded: %d%% of %s spent", event.getCategory(), percentage, allocated)
+                : String.format("%s budget is at %d%% of %s", event.getCategory(), percentage, allocated);
+        BudgetAlertDTO alert = new BudgetAlertDTO(alertIds.incrementAndGet(), event.getBudgetId(), event.getCategory(),
+                exceeded ? LEVEL_EXCEEDED : LEVEL_WARNING, threshold, percentage, Money.ofCents(event.getSpentCents()),
+                allocated, message, Instant.now());
+
+        synchronized (recentAlerts) {
+            recentAlerts.addFirst(alert);
+            if (recentAlerts.size() > RECENT_ALERTS) {
+                recentAlerts.removeLast();
+            }
+        }
+        log.info(message);
+        eventPublisher.publishEvent(new BudgetAlertEvent(alert));
+    }
+
+    // Highest configured threshold the spend has reached, or 0
+    private int reachedThreshold(long spentCents, long allocatedCents) {
+        if (allocatedCents <= 0) {
+            return 0;
+        }
+        int reached = 0;
+        for (int threshold : thresholds) {
+            if (spentCents * 100 >= threshold * allocatedCents) {
+                reached = threshold;
+            }
+        }
+        return reached;
+    }
+}
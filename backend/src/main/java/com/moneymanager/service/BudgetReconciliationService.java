@@ -0,0 +1,238 @@
+package com.moneymanager.service;
+
+import com.moneymanager.dto.BudgetCorrectionDTO;
+import com.moneymanager.dto.ReconciliationReportDTO;
+import com.moneymanager.event.BudgetSpendChangedEvent;
+import com.moneymanager.model.Money;
+import com.moneymanager.sql.QueryStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes every budget's spent amount from the transactions table and
+ * repairs the ones that drifted. The table is read once, split into id ranges
+ * that are aggregated in parallel on a bounded pool, without holding back
+ * writes. Corrections are written in one JDBC batch, each guarded on the
+ * values read, and budgets whose category saw an expense commit during the
+ * scan are skipped rather than overwritten, so the job can run while the
+ * application serves traffic.
+ */
+@Service
+public class BudgetReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetReconciliationService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private BudgetSpendTracker budgetSpendTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${moneymanager.budget.reconcile.partitions:8}")
+    private int partitions;
+
+    @Value("${moneymanager.budget.reconcile.threads:4}")
+    private int threads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startPool() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "budget-reconcile-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopPool() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${moneymanager.budget.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled budget reconciliation: {}", e.getMessage());
+        }
+    }
+
+    public ReconciliationReportDTO reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Budget reconciliation is already running");
+        }
+        try {
+            return doReconcile();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReportDTO doReconcile() {
+        long start = System.currentTimeMillis();
+        // Budgets are read at a watermark: pending async spend is flushed and no
+        // expense commit is in flight, so the spent amounts read agree with the
+        // transactions table. The scan then runs while writes continue; a
+        // category an expense commit touched since the watermark may be counted
+        // by the scan and in spent_cents alike, so its budget is left alone.
+        List<BudgetRow> budgets = budgetSpendTracker.openWatermark(() -> jdbcTemplate.query(
+                "SELECT id, category_id, allocated_cents, spent_cents FROM budgets",
+                (rs, rowNum) -> new BudgetRow(rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getLong(4))));
+        Map<Integer, Long> actual;
+        Set<String> changed;
+        try {
+            actual = sumExpensesByCategory();
+        } finally {
+            changed = budgetSpendTracker.closeWatermark();
+        }
+
+        List<BudgetRow> drifted = new ArrayList<>();
+        long totalDrift = 0;
+        for (BudgetRow budget : budgets) {
+            long actualCents = actual.getOrDefault(budget.categoryId, 0L);
+            budget.changedDuringScan = changed.contains(categoryCache.nameOf(budget.categoryId));
+            if (actualCents != budget.spentCents) {
+                budget.actualCents = actualCents;
+                drifted.add(budget);
+                totalDrift += Math.abs(budget.spentCents - actualCents);
+            }
+        }
+
+        List<BudgetRow> stable = new ArrayList<>();
+        for (BudgetRow budget : drifted) {
+            if (!budget.changedDuringScan) {
+                stable.add(budget);
+            }
+        }
+        int[] updated = stable.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(
+                "UPDATE budgets SET spent_cents = ?, remaining_cents = ?, percentage_spent = ? " +
+                "WHERE id = ? AND spent_cents = ? AND allocated_cents = ?",
+                stable, stable.size(), (ps, budget) -> {
+                    ps.setLong(1, budget.actualCents);
+                    ps.setLong(2, budget.allocatedCents - budget.actualCents);
+                    ps.setInt(3, Money.percent(budget.actualCents, budget.allocatedCents));
+                    ps.setLong(4, budget.id);
+                    ps.setLong(5, budget.spentCents);
+                    ps.setLong(6, budget.allocatedCents);
+                })[0];
+
+        List<BudgetCorrectionDTO> corrections = new ArrayList<>(drifted.size());
+        int corrected = 0;
+        int next = 0;
+        for (BudgetRow budget : drifted) {
+            boolean applied = !budget.changedDuringScan && updated[next++] > 0;
+            String category = categoryCache.nameOf(budget.categoryId);
+            if (applied) {
+                corrected++;
+                eventPublisher.publishEvent(new BudgetSpendChangedEvent(budget.id, category, budget.spentCents,
+                        budget.allocatedCents, budget.actualCents, budget.allocatedCents));
+            }
+            corrections.add(new BudgetCorrectionDTO(budget.id, category,
+                    Money.ofCents(budget.spentCents), Money.ofCents(budget.actualCents), applied));
+        }
+        if (corrected > 0) {
+            // The batch above bypassed Hibernate, so cached budgets are stale
+            cacheService.evictBudgets();
+            tableVersions.touch(TableVersions.BUDGETS);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Reconciled {} budgets in {} ms: {} corrected, {} skipped, total drift {}",
+                budgets.size(), elapsed, corrected, drifted.size() - corrected, Money.ofCents(totalDrift));
+        return new ReconciliationReportDTO(budgets.size(), corrected, drifted.size() - corrected,
+                Money.ofCents(totalDrift), partitions, elapsed, corrections);
+    }
+
+    // One pass over the table, split into contiguous id ranges summed in parallel
+    private Map<Integer, Long> sumExpensesByCategory() {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM transactions");
+        Map<Integer, Long> totals = new HashMap<>();
+        if (bounds.get("lo") == null) {
+            return totals;
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        long span = Math.max(1, (hi - lo + partitions) / partitions);
+
+        List<Future<Map<Integer, Long>>> futures = new ArrayList<>();
+        for (long from = lo; from <= hi; from += span) {
+            long to = Math.min(hi, from + span - 1);
+            long rangeStart = from;
+            futures.add(executor.submit(QueryStats.propagate(() -> {
+                Map<Integer, Long> partial = new HashMap<>();
+                jdbcTemplate.query(
+                        "SELECT category_id, SUM(amount_cents) FROM transactions " +
+                        "WHERE type = 'EXPENSE' AND id BETWEEN ? AND ? GROUP BY category_id",
+                        rs -> {
+                            partial.put(rs.getInt(1), rs.getLong(2));
+                        },
+                        rangeStart, to);
+                return partial;
+            })));
+        }
+        try {
+            for (Future<Map<Integer, Long>> future : futures) {
+                future.get().forEach((category, cents) -> totals.merge(category, cents, Long::sum));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Budget reconciliation was interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Budget reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return totals;
+    }
+
+    private static class BudgetRow {
+        final long id;
+        final int categoryId;
+        final long allocatedCents;
+        final long spentCents;
+        long actualCents;
+        boolean changedDuringScan;
+
+        BudgetRow(long id, int categoryId, long allocatedCents, long spentCents) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.allocatedCents = allocatedCents;
+            this.spentCents = spentCents;
+        }
+    }
+}
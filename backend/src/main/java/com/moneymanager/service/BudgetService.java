@@ -1,10 +1,25 @@
 package com.moneymanager.service;
 
+import com.moneymanager.dto.BatchItemResultDTO;
+import com.moneymanager.dto.BatchResultDTO;
+import com.moneymanager.event.BudgetSpendChangedEvent;
+import com.moneymanager.event.BudgetsDeletedEvent;
 import com.moneymanager.model.Budget;
+import com.moneymanager.model.Money;
 import com.moneymanager.repository.BudgetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class BudgetService {
@@ -12,49 +27,241 @@ public class BudgetService {
     @Autowired
     private BudgetRepository budgetRepository;
 
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${moneymanager.batch.max-items:500}")
+    private int maxBatchItems;
+
     public List<Budget> getAllBudgets() {
         return budgetRepository.findAll();
     }
 
     public Budget saveBudget(Budget budget) {
-        // Calculate remaining amount
-        budget.setRemainingAmount(budget.getAllocatedAmount() - budget.getSpentAmount());
-
-        // Calculate percentage spent
-        if (budget.getAllocatedAmount() > 0) {
-            double percentage = (budget.getSpentAmount() / budget.getAllocatedAmount()) * 100;
-            budget.setPercentageSpent((int) Math.round(percentage));
-        } else {
-            budget.setPercentageSpent(0);
+        // Saving over an existing row would write back a stale spent amount
+        if (budget.getId() != null && budgetRepository.existsById(budget.getId())) {
+            return updateBudget(budget.getId(), budget);
         }
+        if (budget.getSpentAmount() == null) {
+            budget.setSpentAmount(Money.ZERO);
+        }
+        recalculate(budget);
+        Budget saved = budgetRepository.save(budget);
+        tableVersions.touch(TableVersions.BUDGETS);
+        eventPublisher.publishEvent(new BudgetSpendChangedEvent(saved.getId(), saved.getCategory(), 0, 0,
+                saved.getSpentAmount().getCents(), saved.getAllocatedAmount().getCents()));
+        return saved;
+    }
 
-        return budgetRepository.save(budget);
+    @Transactional
+    public Budget updateBudgetSpent(String category, Money spentAmount) {
+        return addSpent(category, spentAmount.getCents());
     }
 
-    public Budget updateBudgetSpent(String category, Double spentAmount) {
-        Budget budget = budgetRepository.findByCategory(category);
-        if (budget != null) {
-            budget.setSpentAmount(budget.getSpentAmount() + spentAmount);
-            return saveBudget(budget);
+    /**
+     * Atomically adds {@code cents} to the category's budget in the database
+     * and returns the updated budget, or null if the category has no budget.
+     */
+    @Transactional
+    public Budget addSpent(String category, long cents) {
+        Integer categoryId = categoryCache.findId(category);
+        if (categoryId == null || budgetRepository.addSpent(categoryId, cents) == 0) {
+            return null;
         }
-        return null;
+        tableVersions.touch(TableVersions.BUDGETS);
+        // The row stays locked by our UPDATE, so this read sees exactly our change
+        Budget budget = budgetRepository.findByCategory(category);
+        long spent = budget.getSpentAmount().getCents();
+        long allocated = budget.getAllocatedAmount().getCents();
+        eventPublisher.publishEvent(new BudgetSpendChangedEvent(budget.getId(), category, spent - cents, allocated,
+                spent, allocated));
+        return budget;
     }
 
     public Budget updateBudget(Long id, Budget budgetDetails) {
-        return budgetRepository.findById(id).map(budget -> {
-            budget.setCategory(budgetDetails.getCategory());
-            budget.setAllocatedAmount(budgetDetails.getAllocatedAmount());
-            // Recalculate metrics
-            budget.setRemainingAmount(budget.getAllocatedAmount() - budget.getSpentAmount());
-            if (budget.getAllocatedAmount() > 0) {
-                double percentage = (budget.getSpentAmount() / budget.getAllocatedAmount()) * 100;
-                budget.setPercentageSpent((int) Math.round(percentage));
-            }
-            return budgetRepository.save(budget);
-        }).orElse(null);
+        // A new category is created before the write transaction opens
+        categoryCache.idOf(budgetDetails.getCategory());
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> updateAllocations(Map.of(id, budgetDetails))).get(id);
     }
 
     public void deleteBudget(Long id) {
         budgetRepository.deleteById(id);
+        tableVersions.touch(TableVersions.BUDGETS);
+        eventPublisher.publishEvent(new BudgetsDeletedEvent(List.of(id)));
+    }
+
+    /** Creates every valid budget in one database transaction with batched inserts. */
+    public BatchResultDTO createBudgets(List<Budget> budgets) {
+        checkBatchSize(budgets.size());
+        Set<String> taken = new HashSet<>();
+        for (Budget budget : budgetRepository.findAll()) {
+            taken.add(budget.getCategory());
+        }
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Budget> valid = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < budgets.size(); i++) {
+            Budget budget = budgets.get(i);
+            String error = validationError(budget);
+            if (error == null && !taken.add(budget.getCategory())) {
+                error = "category already has a budget";
+            }
+            if (error != null) {
+                results.add(BatchItemResultDTO.invalid(i, null, error));
+                continue;
+            }
+            budget.setId(null);
+            if (budget.getSpentAmount() == null) {
+                budget.setSpentAmount(Money.ZERO);
+            }
+            recalculate(budget);
+            // New categories are created before the write transaction opens
+            categoryCache.idOf(budget.getCategory());
+            valid.add(budget);
+            indexes.add(i);
+        }
+        if (!valid.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                tableVersions.touch(TableVersions.BUDGETS);
+                for (Budget saved : budgetRepository.saveAll(valid)) {
+                    eventPublisher.publishEvent(new BudgetSpendChangedEvent(saved.getId(), saved.getCategory(), 0, 0,
+                            saved.getSpentAmount().getCents(), saved.getAllocatedAmount().getCents()));
+                }
+            });
+            for (int i = 0; i < valid.size(); i++) {
+                results.add(BatchItemResultDTO.ok(indexes.get(i), valid.get(i).getId()));
+            }
+        }
+        return new BatchResultDTO(results);
+    }
+
+    /** Changes category and allocation of every budget found by id in one database transaction. */
+    public BatchResultDTO updateBudgets(List<Budget> budgets) {
+        checkBatchSize(budgets.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Budget> valid = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < budgets.size(); i++) {
+            Budget budget = budgets.get(i);
+            String error = budget != null && budget.getId() == null ? "id is required" : validationError(budget);
+            if (error == null && !seen.add(budget.getId())) {
+                error = "Duplicate id in batch";
+            }
+            if (error != null) {
+                results.add(BatchItemResultDTO.invalid(i, budget != null ? budget.getId() : null, error));
+            } else {
+                categoryCache.idOf(budget.getCategory());
+                valid.put(i, budget);
+            }
+        }
+        if (valid.isEmpty()) {
+            return new BatchResultDTO(results);
+        }
+        Map<Long, Budget> details = new HashMap<>();
+        valid.values().forEach(budget -> details.put(budget.getId(), budget));
+        Map<Long, Budget> updated = new TransactionTemplate(transactionManager)
+                .execute(status -> updateAllocations(details));
+        valid.forEach((index, budget) -> results.add(updated.containsKey(budget.getId())
+                ? BatchItemResultDTO.ok(index, budget.getId())
+                : BatchItemResultDTO.notFound(index, budget.getId())));
+        return new BatchResultDTO(results);
+    }
+
+    /**
+     * Applies category and allocation from {@code details} to the budgets with
+     * those ids, leaving spent_cents to addSpent. Must run in a transaction;
+     * the rows stay locked until it ends. Returns the updated budgets by id,
+     * missing ids left out.
+     */
+    private Map<Long, Budget> updateAllocations(Map<Long, Budget> details) {
+        Map<Long, Long> previousAllocated = new HashMap<>();
+        for (Object[] row : budgetRepository.lockAllocations(details.keySet())) {
+            previousAllocated.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        if (previousAllocated.isEmpty()) {
+            return Map.of();
+        }
+        tableVersions.touch(TableVersions.BUDGETS);
+        previousAllocated.keySet().forEach(id -> {
+            Budget budget = details.get(id);
+            budgetRepository.updateAllocation(id, categoryCache.idOf(budget.getCategory()),
+                    budget.getAllocatedAmount().getCents());
+        });
+        Map<Long, Budget> updated = new HashMap<>();
+        for (Budget budget : budgetRepository.findCurrent(previousAllocated.keySet())) {
+            long spent = budget.getSpentAmount().getCents();
+            eventPublisher.publishEvent(new BudgetSpendChangedEvent(budget.getId(), budget.getCategory(), spent,
+                    previousAllocated.get(budget.getId()), spent, budget.getAllocatedAmount().getCents()));
+            updated.put(budget.getId(), budget);
+        }
+        return updated;
+    }
+
+    /** Deletes the given budgets with one bulk DELETE. */
+    public BatchResultDTO deleteBudgets(List<Long> ids) {
+        checkBatchSize(ids.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Long> valid = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null || !seen.add(id)) {
+                results.add(BatchItemResultDTO.invalid(i, id, id == null ? "id is required" : "Duplicate id in batch"));
+            } else {
+                valid.put(i, id);
+            }
+        }
+        Set<Long> existing = new HashSet<>();
+        if (!valid.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                existing.addAll(budgetRepository.findExistingIds(seen));
+                if (!existing.isEmpty()) {
+                    budgetRepository.deleteAllByIdInBatch(existing);
+                    tableVersions.touch(TableVersions.BUDGETS);
+                    eventPublisher.publishEvent(new BudgetsDeletedEvent(existing));
+                }
+            });
+        }
+        valid.forEach((index, id) -> results.add(existing.contains(id)
+                ? BatchItemResultDTO.ok(index, id)
+                : BatchItemResultDTO.notFound(index, id)));
+        return new BatchResultDTO(results);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchItems) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxBatchItems + " items");
+        }
+    }
+
+    private static String validationError(Budget budget) {
+        if (budget == null) {
+            return "Item is empty";
+        }
+        if (budget.getCategory() == null || budget.getCategory().isEmpty()) {
+            return "category is required";
+        }
+        if (budget.getAllocatedAmount() == null || budget.getAllocatedAmount().getCents() < 0) {
+            return "allocatedAmount must not be negative";
+        }
+        return null;
+    }
+
+    // Remaining amount and percentage spent, on whole cents
+    private void recalculate(Budget budget) {
+        long allocated = budget.getAllocatedAmount().getCents();
+        long spent = budget.getSpentAmount().getCents();
+        budget.setRemainingAmount(Money.ofCents(allocated - spent));
+        budget.setPercentageSpent(Money.percent(spent, allocated));
     }
 }
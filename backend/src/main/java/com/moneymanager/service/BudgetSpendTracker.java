@@ -0,0 +1,154 @@
+package com.moneymanager.service;
+
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Feeds expense writes into budget consumption. In the default "sync" mode
+ * each writing transaction issues one atomic UPDATE per touched category just
+ * before it commits. In "async" mode committed deltas are coalesced per
+ * category and applied by a single UPDATE per category every flush interval,
+ * trading a short delay in the budget figures for far fewer row locks on hot
+ * categories.
+ */
+@Component
+public class BudgetSpendTracker {
+
+    public static final String MODE_SYNC = "sync";
+    public static final String MODE_ASYNC = "async";
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetSpendTracker.class);
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Value("${moneymanager.budget.spend-mode:sync}")
+    private String mode;
+
+    private final Map<String, AtomicLong> pendingCents = new ConcurrentHashMap<>();
+
+    // Writers hold the read side from just before their commit until it completed (and, in
+    // async mode, its delta is pending); watermark() takes the write side, so no commit
+    // straddles the snapshot it takes
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock(true);
+
+    // Categories whose spend changed after the last watermark; null while none is open
+    private volatile Set<String> changedSinceWatermark;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeCommit(TransactionsChangedEvent event) {
+        Map<String, Long> cents = expenseCentsByCategory(event);
+        if (cents.isEmpty()) {
+            return;
+        }
+        boolean async = MODE_ASYNC.equals(mode);
+        commitGate.readLock().lock();
+        try {
+            Set<String> changed = changedSinceWatermark;
+            if (changed != null) {
+                changed.addAll(cents.keySet());
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (async && status == STATUS_COMMITTED) {
+                            cents.forEach((category, delta) ->
+                                    pendingCents.computeIfAbsent(category, key -> new AtomicLong()).addAndGet(delta));
+                        }
+                    } finally {
+                        commitGate.readLock().unlock();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            commitGate.readLock().unlock();
+            throw e;
+        }
+        if (!async) {
+            // The synchronization above releases the gate however this ends
+            cents.forEach(budgetService::addSpent);
+        }
+    }
+
+    /**
+     * Runs {@code snapshot} once every committed expense has been applied to
+     * the budgets and while no expense commit is in flight, so it reads spent
+     * amounts that agree with the transactions table. From then on the
+     * categories that later commits touch are recorded until
+     * {@link #closeWatermark()}. Commits wait only for the flush and the
+     * snapshot, which should be a short read.
+     */
+    public <T> T openWatermark(Supplier<T> snapshot) {
+        commitGate.writeLock().lock();
+        try {
+            flush();
+            T result = snapshot.get();
+            changedSinceWatermark = ConcurrentHashMap.newKeySet();
+            return result;
+        } finally {
+            commitGate.writeLock().unlock();
+        }
+    }
+
+    /** Stops recording and returns the categories whose spend changed since the watermark. */
+    public Set<String> closeWatermark() {
+        Set<String> changed = changedSinceWatermark;
+        changedSinceWatermark = null;
+        return changed != null ? changed : Set.of();
+    }
+
+    @Scheduled(fixedDelayString = "${moneymanager.budget.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        for (Map.Entry<String, AtomicLong> entry : pendingCents.entrySet()) {
+            long cents = entry.getValue().getAndSet(0);
+            if (cents == 0) {
+                continue;
+            }
+            try {
+                budgetService.addSpent(entry.getKey(), cents);
+            } catch (RuntimeException e) {
+                // Put the delta back so the next flush retries it
+                entry.getValue().addAndGet(cents);
+                log.warn("Could not apply budget spend for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    // Net expense change per category; updates that don't touch spend cancel out
+    private static Map<String, Long> expenseCentsByCategory(TransactionsChangedEvent event) {
+        Map<String, Long> cents = new HashMap<>();
+        for (Transaction transaction : event.getAdded()) {
+            if ("EXPENSE".equals(transaction.getType())) {
+                cents.merge(transaction.getCategory(), transaction.getAmount().getCents(), Long::sum);
+            }
+        }
+        for (Transaction transaction : event.getRemoved()) {
+            if ("EXPENSE".equals(transaction.getType())) {
+                cents.merge(transaction.getCategory(), -transaction.getAmount().getCents(), Long::sum);
+            }
+        }
+        cents.values().removeIf(delta -> delta == 0);
+        return cents;
+    }
+}
@@ -0,0 +1,75 @@
+package com.moneymanager.service;
+
+import com.moneymanager.dto.CacheRegionStatsDTO;
+import com.moneymanager.dto.CacheStatsDTO;
+import com.moneymanager.model.Budget;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistics and manual eviction for the Hibernate second-level and query
+ * caches. Writes made through JPA keep the caches consistent on their own;
+ * anything written with plain JDBC must evict what it touched through here.
+ */
+@Service
+public class CacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheService.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsDTO getStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(new CacheRegionStatsDTO(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount()));
+            }
+        }
+        CacheRegionStatistics queries = statistics.getQueryRegionStatistics(
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        if (queries != null) {
+            regions.add(new CacheRegionStatsDTO(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    queries.getHitCount(), queries.getMissCount(), queries.getPutCount()));
+        }
+        long hits = statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount();
+        long lookups = hits + statistics.getSecondLevelCacheMissCount() + statistics.getQueryCacheMissCount();
+        double hitRatio = lookups == 0 ? 0 : Math.round(hits * 1000.0 / lookups) / 1000.0;
+        return new CacheStatsDTO(statistics.isStatisticsEnabled(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), hitRatio,
+                statistics.getPrepareStatementCount(), regions);
+    }
+
+    /** Drops cached budgets and query results after budgets were written with plain JDBC. */
+    public void evictBudgets() {
+        sessionFactory().getCache().evictEntityData(Budget.class);
+        sessionFactory().getCache().evictQueryRegions();
+    }
+
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+        log.info("Evicted all second-level and query cache regions");
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
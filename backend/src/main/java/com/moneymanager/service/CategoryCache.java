@@ -0,0 +1,134 @@
+package com.moneymanager.service;
+
+import com.moneymanager.model.Category;
+import com.moneymanager.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process dictionary of category names to their small integer ids. Reads
+ * go against an immutable snapshot and never touch the database; the snapshot
+ * is replaced wholesale whenever a new category is created.
+ */
+@Component
+public class CategoryCache {
+
+    // Misses on lookups are mostly names that don't exist, so they reload at most this often
+    private static final long MISS_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Snapshot snapshot;
+
+    /** Returns the id for {@code name}, creating the category on first use. */
+    public int idOf(String name) {
+        Integer id = snapshot().idsByName.get(name);
+        return id != null ? id : create(name);
+    }
+
+    /**
+     * Returns the id for {@code name}, or null if no such category exists.
+     * Categories created through this cache are seen at once; ones inserted
+     * behind its back may take up to the miss refresh interval to appear.
+     */
+    public Integer findId(String name) {
+        Snapshot current = snapshot();
+        Integer id = current.idsByName.get(name);
+        if (id != null || System.nanoTime() - current.loadedAtNanos < MISS_REFRESH_INTERVAL_NANOS) {
+            return id;
+        }
+        return refreshIfCurrent(current).idsByName.get(name);
+    }
+
+    public String nameOf(int id) {
+        Snapshot current = snapshot();
+        if (id < current.namesById.length && current.namesById[id] != null) {
+            return current.namesById[id];
+        }
+        // Created by another writer since our snapshot was taken
+        current = refresh();
+        if (id >= current.namesById.length || current.namesById[id] == null) {
+            throw new IllegalStateException("Unknown category id " + id);
+        }
+        return current.namesById[id];
+    }
+
+    /** Names indexed by category id; unused ids are null. */
+    public List<String> names() {
+        return Collections.unmodifiableList(Arrays.asList(snapshot().namesById));
+    }
+
+    public synchronized Snapshot refresh() {
+        Map<String, Integer> idsByName = new HashMap<>();
+        int maxId = 0;
+        List<Category> categories = categoryRepository.findAll();
+        for (Category category : categories) {
+            idsByName.put(category.getName(), category.getId());
+            maxId = Math.max(maxId, category.getId());
+        }
+        String[] namesById = new String[maxId + 1];
+        for (Category category : categories) {
+            namesById[category.getId()] = category.getName();
+        }
+        snapshot = new Snapshot(idsByName, namesById, System.nanoTime());
+        return snapshot;
+    }
+
+    // Concurrent misses on the same stale snapshot share one reload
+    private synchronized Snapshot refreshIfCurrent(Snapshot seen) {
+        return snapshot == seen ? refresh() : snapshot;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    // Committed in its own transaction so the id stays valid even if the
+    // caller's transaction rolls back.
+    private synchronized int create(String name) {
+        Integer existing = snapshot().idsByName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> categoryRepository.saveAndFlush(new Category(name)));
+        } catch (DataIntegrityViolationException e) {
+            // Inserted concurrently outside this cache; the refresh below picks it up
+        }
+        Integer id = refresh().idsByName.get(name);
+        if (id == null) {
+            throw new IllegalStateException("Could not create category " + name);
+        }
+        return id;
+    }
+
+    private static final class Snapshot {
+        final Map<String, Integer> idsByName;
+        final String[] namesById;
+        final long loadedAtNanos;
+
+        Snapshot(Map<String, Integer> idsByName, String[] namesById, long loadedAtNanos) {
+            this.idsByName = idsByName;
+            this.namesById = namesById;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
@@ -1,45 +1,194 @@
 package com.moneymanager.service;
 
+import com.moneymanager.dto.DashboardBundleDTO;
 import com.moneymanager.dto.DashboardStatsDTO;
+import com.moneymanager.model.Bill;
+import com.moneymanager.model.Budget;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.repository.TypeTotal;
+import com.moneymanager.sql.QueryStats;
+import com.moneymanager.threads.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class DashboardService {
     
+    public static final int RECENT_TRANSACTIONS = 10;
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+    
     @Autowired
     private TransactionService transactionService;
     
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private BudgetService budgetService;
+    
+    @Autowired
+    private BillService billService;
+    
+    @Value("${moneymanager.dashboard.bundle.threads:4}")
+    private int bundleThreads;
+    
+    @Value("${moneymanager.dashboard.bundle.queue-capacity:100}")
+    private int bundleQueueCapacity;
+    
+    @Value("${moneymanager.dashboard.bundle.timeout-ms:2000}")
+    private long bundleTimeoutMillis;
+    
+    @Value("${moneymanager.threads.virtual:false}")
+    private boolean virtualThreads;
+    
+    private ExecutorService bundleExecutor;
+    
+    @PostConstruct
+    void startPool() {
+        // Sections block on JDBC; in virtual-thread mode each gets its own virtual thread and the
+        // connection permits bound the database load instead of the pool size
+        bundleExecutor = virtualThreads ? VirtualThreads.newThreadPerTaskExecutor("dashboard-bundle-") : null;
+        if (bundleExecutor != null) {
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        // When the queue is full the section is cancelled rather than run on the request
+        // thread, so await() reports it as unavailable straight away
+        bundleExecutor = new ThreadPoolExecutor(bundleThreads, bundleThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bundleQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-bundle-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, executor) -> ((Future<?>) task).cancel(false));
+    }
+    
+    @PreDestroy
+    void stopPool() {
+        bundleExecutor.shutdownNow();
+    }
+    
+    /**
+     * Everything the dashboard needs for first paint. The sections are
+     * loaded concurrently and share one deadline, so the call takes as long
+     * as the slowest section. A section that fails or misses the deadline is
+     * left null and named in the errors; the others are still returned.
+     */
+    public DashboardBundleDTO getDashboardBundle() {
+        long start = System.currentTimeMillis();
+        long deadline = start + bundleTimeoutMillis;
+        // Sections run on pool threads; propagate keeps their SQL on this request's query counters
+        Future<DashboardStatsDTO> stats = bundleExecutor.submit(QueryStats.propagate(this::getDashboardStats));
+        Future<List<Transaction>> recent = bundleExecutor.submit(QueryStats.propagate(() ->
+                transactionService.getRecentTransactions(RECENT_TRANSACTIONS)));
+        Future<List<Budget>> budgets = bundleExecutor.submit(QueryStats.propagate(budgetService::getAllBudgets));
+        Future<List<Bill>> unpaidBills = bundleExecutor.submit(QueryStats.propagate(billService::getUnpaidBills));
+        
+        Map<String, String> errors = new LinkedHashMap<>();
+        return new DashboardBundleDTO(
+            await("stats", stats, deadline, errors),
+            await("recentTransactions", recent, deadline, errors),
+            await("budgets", budgets, deadline, errors),
+            await("unpaidBills", unpaidBills, deadline, errors),
+            errors,
+            System.currentTimeMillis() - start
+        );
+    }
+    
     public DashboardStatsDTO getDashboardStats() {
-        Double totalIncome = transactionService.getTotalIncome();
-        Double totalExpenses = transactionService.getTotalExpenses();
-        Double currentBalance = totalIncome - totalExpenses;
+        // Summed from the monthly rollups, a few hundred rows whatever the ledger size
+        Map<String, TypeTotal> totals = rollupService.getTotalsByType();
+        long totalIncome = centsOf(totals, "INCOME");
+        long totalExpenses = centsOf(totals, "EXPENSE");
+        long currentBalance = totalIncome - totalExpenses;
         
         // Calculate monthly savings (25% of income)
-        Double monthlySavings = totalIncome * 0.25;
+        long monthlySavings = Money.percentOf(totalIncome, 25);
         
         // Calculate savings percentage
-        Double savingsTarget = totalIncome * 0.30; // 30% target
+        long savingsTarget = Money.percentOf(totalIncome, 30); // 30% target
         String savingsPercentage = savingsTarget > 0 ? 
-            String.format("%.0f%%", (monthlySavings / savingsTarget) * 100) : "0%";
+            Money.percent(monthlySavings, savingsTarget) + "%" : "0%";
+        
+        String[] changes = getMonthOverMonthChanges();
         
         return new DashboardStatsDTO(
-            round(totalIncome, 2),
-            round(totalExpenses, 2),
-            round(currentBalance, 2),
-            round(monthlySavings, 2),
-            "+12%", // Mock data for changes
-            "-5%",  // Mock data for changes
+            Money.ofCents(totalIncome),
+            Money.ofCents(totalExpenses),
+            Money.ofCents(currentBalance),
+            Money.ofCents(monthlySavings),
+            changes[0],
+            changes[1],
             savingsPercentage
         );
     }
     
-    private Double round(Double value, int places) {
-        if (value == null) return 0.0;
-        BigDecimal bd = BigDecimal.valueOf(value);
-        bd = bd.setScale(places, RoundingMode.HALF_UP);
-        return bd.doubleValue();
+    /**
+     * Income and expense change of the latest month with activity against the
+     * month before it, read from the rollup table (one row per category).
+     */
+    private String[] getMonthOverMonthChanges() {
+        Integer latestMonth = rollupService.getLatestPeriodMonth();
+        if (latestMonth == null) {
+            return new String[] {"0%", "0%"};
+        }
+        Map<String, TypeTotal> current = rollupService.getTotalsByType(latestMonth);
+        Map<String, TypeTotal> previous = rollupService.getTotalsByType(RollupService.previousPeriodMonth(latestMonth));
+        return new String[] {
+            percentChange(centsOf(previous, "INCOME"), centsOf(current, "INCOME")),
+            percentChange(centsOf(previous, "EXPENSE"), centsOf(current, "EXPENSE"))
+        };
+    }
+    
+    private <T> T await(String section, Future<T> future, long deadline, Map<String, String> errors) {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            errors.put(section, "Timed out after " + bundleTimeoutMillis + " ms");
+        } catch (CancellationException e) {
+            // Only rejected sections are cancelled before their result is awaited
+            errors.put(section, "Skipped: dashboard pool is saturated");
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+            errors.put(section, "Failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            errors.put(section, "Interrupted");
+        }
+        return null;
+    }
+    
+    private String percentChange(long previous, long current) {
+        if (previous == 0) {
+            return current > 0 ? "+100%" : "0%";
+        }
+        int change = Money.percent(current - previous, previous);
+        return (change > 0 ? "+" : "") + change + "%";
+    }
+    
+    private long centsOf(Map<String, TypeTotal> totals, String type) {
+        TypeTotal total = totals.get(type);
+        return total != null && total.getTotal() != null ? total.getTotal() : 0L;
     }
 }
@@ -0,0 +1,304 @@
+package com.moneymanager.service;
+
+import com.moneymanager.dto.BillDueDTO;
+import com.moneymanager.dto.BudgetSpendDTO;
+import com.moneymanager.dto.LedgerDeltaDTO;
+import com.moneymanager.event.BillDueEvent;
+import com.moneymanager.event.BillsChangedEvent;
+import com.moneymanager.event.BudgetAlertEvent;
+import com.moneymanager.event.BudgetSpendChangedEvent;
+import com.moneymanager.event.BudgetsDeletedEvent;
+import com.moneymanager.event.SettingsChangedEvent;
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes a compact delta of every committed change to transactions, budgets,
+ * bills and settings, every budget alert and every bill reminder or overdue
+ * transition to Server-Sent Events subscribers, so open tabs can
+ * update in place instead of polling. Recent events are kept in a replay
+ * buffer: a client that reconnects with Last-Event-ID receives what it
+ * missed, or a reset event telling it to reload when that is no longer
+ * available. Every subscriber has a bounded queue drained by a small
+ * dispatcher pool, so a slow client never blocks a writer; one that falls too
+ * far behind is disconnected and resumes from the replay buffer.
+ */
+@Service
+public class LedgerStreamService {
+
+    public static final String EVENT_TRANSACTIONS = "transactions";
+    public static final String EVENT_BUDGETS = "budgets";
+    public static final String EVENT_BILLS = "bills";
+    public static final String EVENT_SETTINGS = "settings";
+    public static final String EVENT_BUDGET_ALERT = "budget-alert";
+    public static final String EVENT_BILL_DUE = "bill-due";
+    public static final String EVENT_RESET = "reset";
+
+    private static final Object HEARTBEAT = new Object();
+
+    @Value("${moneymanager.stream.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${moneymanager.stream.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${moneymanager.stream.max-items:100}")
+    private int maxItems;
+
+    @Value("${moneymanager.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${moneymanager.stream.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    // Event ids carry the start time so ids from before a restart are never resumed
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long sequence;
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    void startPool() {
+        AtomicInteger counter = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ledger-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopPool() {
+        dispatcher.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, null);
+    }
+
+    /**
+     * Opens a stream of the given event types, or of all of them when
+     * {@code types} is null; reset and heartbeats are always sent. With
+     * {@code lastEventId} the events published after it are replayed first;
+     * without it the stream starts at the next change.
+     */
+    public SseEmitter subscribe(String lastEventId, Set<String> types) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), subscriberBuffer, types);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (replay) {
+            List<StreamEvent> missed = missedSince(lastEventId);
+            if (missed == null) {
+                enqueue(subscriber, new StreamEvent(sequence, EVENT_RESET, Map.of()));
+            } else {
+                missed.stream().filter(subscriber::wants).forEach(event -> enqueue(subscriber, event));
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Set<Long> upserted = new HashSet<>();
+        for (Transaction transaction : event.getAdded()) {
+            upserted.add(transaction.getId());
+        }
+        // An update carries the old row in removed; only ids that are gone count as deleted
+        List<Long> deleted = new ArrayList<>();
+        for (Transaction transaction : event.getRemoved()) {
+            if (!upserted.contains(transaction.getId())) {
+                deleted.add(transaction.getId());
+            }
+        }
+        publish(EVENT_TRANSACTIONS, delta(event.getAdded(), deleted));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetSpendChanged(BudgetSpendChangedEvent event) {
+        BudgetSpendDTO budget = new BudgetSpendDTO(event.getBudgetId(), event.getCategory(),
+                event.getAllocatedCents(), event.getSpentCents());
+        publish(EVENT_BUDGETS, delta(List.of(budget), List.of()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetsDeleted(BudgetsDeletedEvent event) {
+        publish(EVENT_BUDGETS, delta(List.of(), event.getIds()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBillsChanged(BillsChangedEvent event) {
+        publish(EVENT_BILLS, delta(event.getChanged(), event.getDeletedIds()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        publish(EVENT_SETTINGS, event.getSettings());
+    }
+
+    // Raised after the budget write committed, so it goes out right away
+    @EventListener
+    public void onBudgetAlert(BudgetAlertEvent event) {
+        publish(EVENT_BUDGET_ALERT, event.getAlert());
+    }
+
+    // Published by the bill scheduler's timer thread once the stage is claimed
+    @EventListener
+    public void onBillDue(BillDueEvent event) {
+        publish(EVENT_BILL_DUE, new BillDueDTO(event.getKind(), event.getBill()));
+    }
+
+    // Keeps idle connections from being closed by proxies and detects clients that went away
+    @Scheduled(fixedRateString = "${moneymanager.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+
+    // Copies the items, since the replay buffer outlives the caller's lists
+    private <T> LedgerDeltaDTO<T> delta(List<T> upserted, Collection<Long> deletedIds) {
+        if (upserted.size() + deletedIds.size() > maxItems) {
+            return new LedgerDeltaDTO<>(List.of(), List.of(), true);
+        }
+        return new LedgerDeltaDTO<>(new ArrayList<>(upserted), new ArrayList<>(deletedIds), false);
+    }
+
+    private void publish(String type, Object payload) {
+        synchronized (replay) {
+            StreamEvent event = new StreamEvent(++sequence, type, payload);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.wants(event)) {
+                    enqueue(subscriber, event);
+                }
+            }
+        }
+    }
+
+    // Events after lastEventId, or null when they can no longer be replayed; caller must hold the replay monitor
+    private List<StreamEvent> missedSince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isEmpty()) {
+            return List.of();
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence;
+        if (last > sequence || last < oldest - 1 || sequence - last > subscriberBuffer) {
+            return null;
+        }
+        List<StreamEvent> missed = new ArrayList<>();
+        for (StreamEvent event : replay) {
+            if (event.sequence > last) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private void enqueue(Subscriber subscriber, Object item) {
+        if (!subscriber.queue.offer(item)) {
+            // Too far behind; the client reconnects with its Last-Event-ID and catches up from the replay buffer
+            subscribers.remove(subscriber);
+            dispatcher.execute(subscriber.emitter::complete);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    // At most one drain per subscriber runs at a time, so its events are sent in order
+    private void drain(Subscriber subscriber) {
+        do {
+            Object item;
+            while ((item = subscriber.queue.poll()) != null) {
+                try {
+                    if (item == HEARTBEAT) {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        StreamEvent event = (StreamEvent) item;
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(epoch + "-" + event.sequence)
+                                .name(event.type)
+                                .data(event.payload));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Disconnected; leave draining set so nothing is dispatched for it again
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private static final class StreamEvent {
+        final long sequence;
+        final String type;
+        final Object payload;
+
+        StreamEvent(long sequence, String type, Object payload) {
+            this.sequence = sequence;
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final Set<String> types;
+
+        Subscriber(SseEmitter emitter, int capacity, Set<String> types) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.types = types;
+        }
+
+        boolean wants(StreamEvent event) {
+            return types == null || types.contains(event.type);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.moneymanager.service;
+
+import com.moneymanager.analytics.TransactionColumnStore;
+import com.moneymanager.search.TransactionSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the monthly rollups, the analytics column store and the search index
+ * from the transactions table while the context refreshes. It runs in a
+ * lifecycle phase ahead of the embedded web server, so no request is served
+ * before they are complete, and after every singleton is initialized, so the
+ * synthetic dataset is already in place.
+ */
+@Component
+public class ProjectionLoader implements SmartLifecycle {
+
+    /** One below the embedded web server's start phase (Integer.MAX_VALUE - 1). */
+    public static final int PHASE = Integer.MAX_VALUE - 2;
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectionLoader.class);
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionColumnStore transactionColumnStore;
+
+    @Autowired
+    private TransactionSearchIndex transactionSearchIndex;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        long start = System.currentTimeMillis();
+        rollupService.rebuild();
+        transactionColumnStore.load();
+        transactionSearchIndex.load();
+        running = true;
+        log.info("Built in-memory projections in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
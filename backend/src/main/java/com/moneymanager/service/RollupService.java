@@ -0,0 +1,222 @@
+package com.moneymanager.service;
+
+import com.moneymanager.model.MonthlyCategoryRollup;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.repository.MonthlyCategoryRollupRepository;
+import com.moneymanager.repository.TypeTotal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+public class RollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    @Autowired
+    private MonthlyCategoryRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Buckets known to exist, so writers can skip ensureBucket's insert
+    private final Set<String> knownBuckets = ConcurrentHashMap.newKeySet();
+
+    // Writers hold the read side from their first delta until their transaction completes;
+    // rebuild holds the write side until it commits, so no delta lands between its DELETE
+    // and the snapshot its INSERT ... SELECT reads
+    private final ReentrantReadWriteLock rebuildGate = new ReentrantReadWriteLock(true);
+
+    @Value("${moneymanager.rollup.rebuild-wait-ms:10000}")
+    private long rebuildWaitMillis;
+
+    public static int toPeriodMonth(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    public static int previousPeriodMonth(int periodMonth) {
+        YearMonth month = YearMonth.of(periodMonth / 100, periodMonth % 100).minusMonths(1);
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    /**
+     * Folds a newly written transaction into its month/category/type bucket.
+     * Must run inside the caller's transaction so the rollup commits or rolls
+     * back together with the transaction row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(Transaction transaction) {
+        applyDelta(toPeriodMonth(transaction.getDate()), transaction.getCategory(),
+                transaction.getType(), transaction.getAmount().getCents(), 1L);
+    }
+
+    /**
+     * Folds a batch of writes into the rollups with one increment per touched
+     * bucket; removed transactions are subtracted. Updates pass the old state
+     * as removed and the new state as added.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(List<Transaction> added, List<Transaction> removed) {
+        Map<String, long[]> deltas = new HashMap<>();
+        Map<String, Transaction> samples = new HashMap<>();
+        for (Transaction transaction : added) {
+            String key = bucketKey(transaction);
+            samples.putIfAbsent(key, transaction);
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] += transaction.getAmount().getCents();
+            delta[1]++;
+        }
+        for (Transaction transaction : removed) {
+            String key = bucketKey(transaction);
+            samples.putIfAbsent(key, transaction);
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] -= transaction.getAmount().getCents();
+            delta[1]--;
+        }
+        deltas.forEach((key, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                Transaction sample = samples.get(key);
+                applyDelta(toPeriodMonth(sample.getDate()), sample.getCategory(), sample.getType(), delta[0], delta[1]);
+            }
+        });
+    }
+
+    /** {@link #ensureBucket} for every bucket the given transactions fall into. */
+    public void ensureBuckets(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            ensureBucket(toPeriodMonth(transaction.getDate()), transaction.getCategory(), transaction.getType());
+        }
+    }
+
+    /**
+     * Creates the bucket if it does not exist yet. Writers call this before
+     * opening their own transaction; creating it from inside would need a
+     * second pooled connection per writer and can starve the pool when many
+     * writers hit a new bucket at once.
+     */
+    public void ensureBucket(int periodMonth, String category, String type) {
+        String key = bucketKey(periodMonth, category, type);
+        if (!knownBuckets.contains(key)) {
+            createBucketIfAbsent(periodMonth, category, type);
+            knownBuckets.add(key);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(int periodMonth, String category, String type, long cents, long count) {
+        if (rebuildGate.getReadHoldCount() == 0) {
+            rebuildGate.readLock().lock();
+            releaseAfterCompletion(rebuildGate.readLock());
+        }
+        if (rollupRepository.increment(periodMonth, category, type, cents, count) == 0) {
+            // Only reached if a rebuild removed the bucket after ensureBucket
+            createBucketIfAbsent(periodMonth, category, type);
+            rollupRepository.increment(periodMonth, category, type, cents, count);
+        }
+    }
+
+    public Map<String, TypeTotal> getTotalsByType(int periodMonth) {
+        Map<String, TypeTotal> byType = new HashMap<>();
+        for (TypeTotal total : rollupRepository.sumByTypeForMonth(periodMonth)) {
+            byType.put(total.getType(), total);
+        }
+        return byType;
+    }
+
+    /** All-time SUM/COUNT per type; types without transactions are absent. */
+    public Map<String, TypeTotal> getTotalsByType() {
+        Map<String, TypeTotal> byType = new HashMap<>();
+        for (TypeTotal total : rollupRepository.sumByType()) {
+            byType.put(total.getType(), total);
+        }
+        return byType;
+    }
+
+    public List<MonthlyCategoryRollup> getRollupsForMonth(int periodMonth) {
+        return rollupRepository.findByPeriodMonth(periodMonth);
+    }
+
+    public Integer getLatestPeriodMonth() {
+        return rollupRepository.findLatestPeriodMonth();
+    }
+
+    /**
+     * Recomputes every bucket from the transactions table in one grouped
+     * INSERT ... SELECT. Used for backfill and to repair drift. Writers that
+     * touch the rollups wait until it commits; it gives up if in-flight writes
+     * do not finish within moneymanager.rollup.rebuild-wait-ms.
+     */
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            if (!rebuildGate.writeLock().tryLock(rebuildWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Rollup rebuild gave up waiting for in-flight writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup rebuild was interrupted", e);
+        }
+        releaseAfterCompletion(rebuildGate.writeLock());
+        rollupRepository.deleteAllRollups();
+        knownBuckets.clear();
+        int rows = rollupRepository.insertFromTransactions();
+        log.info("Rebuilt {} monthly category rollups in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private static void releaseAfterCompletion(Lock lock) {
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    private static String bucketKey(Transaction transaction) {
+        return bucketKey(toPeriodMonth(transaction.getDate()), transaction.getCategory(), transaction.getType());
+    }
+
+    private static String bucketKey(int periodMonth, String category, String type) {
+        return periodMonth + "|" + type + "|" + category;
+    }
+
+    // Inserts the zero bucket in its own transaction so that two writers racing
+    // on a new bucket don't poison the caller's transaction with a duplicate key.
+    private void createBucketIfAbsent(int periodMonth, String category, String type) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> rollupRepository.saveAndFlush(
+                    new MonthlyCategoryRollup(periodMonth, category, type, 0L, 0L)));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer created the bucket first
+        }
+    }
+}
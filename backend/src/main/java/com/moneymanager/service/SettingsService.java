@@ -1,8 +1,10 @@
 package com.moneymanager.service;
 
+import com.moneymanager.event.SettingsChangedEvent;
 import com.moneymanager.model.Settings;
 import com.moneymanager.repository.SettingsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -11,6 +13,12 @@ public class SettingsService {
     @Autowired
     private SettingsRepository settingsRepository;
 
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Settings getSettings() {
         return settingsRepository.findById(1L)
                 .orElseGet(() -> {
@@ -21,6 +29,9 @@ public class SettingsService {
 
     public Settings updateSettings(Settings settings) {
         settings.setId(1L); // Ensure we always update the same record
-        return settingsRepository.save(settings);
+        Settings saved = settingsRepository.save(settings);
+        tableVersions.touch(TableVersions.SETTINGS);
+        eventPublisher.publishEvent(new SettingsChangedEvent(saved));
+        return saved;
     }
 }
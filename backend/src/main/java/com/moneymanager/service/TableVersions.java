@@ -0,0 +1,60 @@
+package com.moneymanager.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change counter per table, bumped by every service method that
+ * writes to it. Read endpoints derive their ETag from the counter, so a
+ * conditional GET is answered without running a query. Inside a transaction
+ * the bump waits until the transaction has completed: a reader that sees the
+ * old version may still load the new rows, which only costs a later 200, but
+ * never caches the old rows under the new version.
+ */
+@Component
+public class TableVersions {
+
+    public static final String BUDGETS = "budgets";
+    public static final String BILLS = "bills";
+    public static final String SETTINGS = "settings";
+    public static final String TRANSACTIONS = "transactions";
+
+    // The in-memory database is recreated on restart, so tags from a previous run must not match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void touch(String table) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(table);
+                }
+            });
+        } else {
+            bump(table);
+        }
+    }
+
+    public long version(String table) {
+        return counter(table).get();
+    }
+
+    /** Strong entity tag for the current contents of {@code table}. */
+    public String etag(String table) {
+        return "\"" + table + "-" + epoch + "-" + version(table) + "\"";
+    }
+
+    private void bump(String table) {
+        counter(table).incrementAndGet();
+    }
+
+    private AtomicLong counter(String table) {
+        return versions.computeIfAbsent(table, key -> new AtomicLong());
+    }
+}
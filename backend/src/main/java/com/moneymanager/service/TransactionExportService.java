@@ -0,0 +1,100 @@
+package com.moneymanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full transaction history to an output stream one row at a time.
+ * Entities are detached as soon as they are written, so memory use stays
+ * flat no matter how many rows the ledger holds.
+ */
+@Service
+public class TransactionExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportTransactions(OutputStream out, String format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = 0;
+        try (Stream<Transaction> stream = transactionRepository.streamAllByOrderByDateDescIdDesc()) {
+            Iterator<Transaction> iterator = stream.iterator();
+            if (FORMAT_NDJSON.equals(format)) {
+                SequenceWriter sequenceWriter = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    sequenceWriter.write(transaction);
+                    entityManager.detach(transaction);
+                    rows++;
+                }
+                sequenceWriter.flush();
+                // Terminate the last record; an empty export stays empty
+                if (rows > 0) {
+                    writer.write('\n');
+                }
+            } else {
+                writer.write("id,date,description,category,amount,type\n");
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    writeCsvRow(writer, transaction);
+                    entityManager.detach(transaction);
+                    rows++;
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, Transaction transaction) throws IOException {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writer.write(transaction.getDate().toString());
+        writer.write(',');
+        writeCsvField(writer, transaction.getDescription());
+        writer.write(',');
+        writeCsvField(writer, transaction.getCategory());
+        writer.write(',');
+        writer.write(String.valueOf(transaction.getAmount()));
+        writer.write(',');
+        writer.write(transaction.getType());
+        writer.write('\n');
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,352 @@
+package com.moneymanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneymanager.dto.ImportResultDTO;
+import com.moneymanager.dto.ImportRowErrorDTO;
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams CSV or NDJSON transaction rows from the request body into the
+ * database in fixed-size batches. Only one batch is held in memory at a time;
+ * each batch is committed on its own so a bad row never discards earlier work.
+ */
+@Service
+public class TransactionImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String[] CSV_COLUMNS = {"description", "category", "date", "amount", "type"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${moneymanager.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${moneymanager.import.max-line-length:8192}")
+    private int maxLineLength;
+
+    public ImportResultDTO importTransactions(InputStream body, String format) throws IOException {
+        long start = System.nanoTime();
+        ImportState state = new ImportState();
+        LineReader reader = new LineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength);
+
+        int[] columns = null;
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (reader.tooLong()) {
+                boolean header = FORMAT_CSV.equals(format) && columns == null;
+                if (!header) {
+                    state.totalRows++;
+                }
+                state.fail(lineNumber, "Line is longer than " + maxLineLength + " characters");
+                if (header) {
+                    break;
+                }
+                continue;
+            }
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (FORMAT_CSV.equals(format) && columns == null) {
+                columns = parseHeader(line);
+                if (columns == null) {
+                    state.fail(lineNumber, "Header must contain columns: " + String.join(",", CSV_COLUMNS));
+                    break;
+                }
+                continue;
+            }
+
+            state.totalRows++;
+            try {
+                Transaction transaction = FORMAT_NDJSON.equals(format) ? parseJson(line) : parseCsv(line, columns);
+                state.pending.add(transaction);
+                state.pendingLines.add(lineNumber);
+            } catch (IllegalArgumentException e) {
+                state.fail(lineNumber, e.getMessage());
+            }
+            if (state.pending.size() >= batchSize) {
+                flushBatch(state);
+            }
+        }
+        flushBatch(state);
+
+        long elapsedNanos = System.nanoTime() - start;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rowsPerSecond = seconds > 0 ? state.importedRows / seconds : 0;
+        log.info("Imported {} of {} transaction rows in {} ms ({} rows/s)",
+                state.importedRows, state.totalRows, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new ImportResultDTO(state.totalRows, state.importedRows, state.failedRows, state.errors,
+                state.failedRows > state.errors.size(), elapsedNanos / 1_000_000, Math.round(rowsPerSecond * 10) / 10.0);
+    }
+
+    private void flushBatch(ImportState state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        List<Transaction> batch = state.pending;
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        try {
+            // New categories and buckets are created outside the batch transaction
+            // so it never needs a second pooled connection
+            for (Transaction transaction : batch) {
+                categoryCache.idOf(transaction.getCategory());
+            }
+            rollupService.ensureBuckets(batch);
+            template.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (Transaction transaction : batch) {
+                    entityManager.persist(transaction);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                rollupService.recordChanges(batch, List.of());
+                tableVersions.touch(TableVersions.TRANSACTIONS);
+                eventPublisher.publishEvent(new TransactionsChangedEvent(batch));
+            });
+            state.importedRows += batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Import batch of {} rows failed: {}", batch.size(), e.getMessage());
+            for (Long failedLine : state.pendingLines) {
+                state.fail(failedLine, "Batch insert failed: " + e.getMessage());
+            }
+        }
+        state.pending = new ArrayList<>(batchSize);
+        state.pendingLines.clear();
+    }
+
+    private int[] parseHeader(String line) {
+        List<String> header = splitCsv(line);
+        int[] columns = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (header.get(j).trim().equalsIgnoreCase(CSV_COLUMNS[i])) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    private Transaction parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        String[] values = new String[CSV_COLUMNS.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i] < fields.size() ? fields.get(columns[i]).trim() : null;
+        }
+        return toTransaction(values[0], values[1], values[2], values[3], values[4]);
+    }
+
+    private Transaction parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        return toTransaction(text(node, "description"), text(node, "category"), text(node, "date"),
+                text(node, "amount"), text(node, "type"));
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private Transaction toTransaction(String description, String category, String date, String amount, String type) {
+        if (description == null || description.isEmpty()) {
+            throw new IllegalArgumentException("description is required");
+        }
+        if (category == null || category.isEmpty()) {
+            throw new IllegalArgumentException("category is required");
+        }
+        LocalDate parsedDate;
+        try {
+            parsedDate = LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("date must be yyyy-MM-dd");
+        }
+        Money parsedAmount;
+        try {
+            parsedAmount = Money.parse(amount);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("amount must be a number");
+        }
+        if (!parsedAmount.isPositive()) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        String normalizedType = type == null ? "" : type.toUpperCase(Locale.ROOT);
+        if (!"INCOME".equals(normalizedType) && !"EXPENSE".equals(normalizedType)) {
+            throw new IllegalArgumentException("type must be INCOME or EXPENSE");
+        }
+        return new Transaction(description, category, parsedDate, parsedAmount, normalizedType);
+    }
+
+    // Minimal RFC 4180 field splitter for single-line records
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Splits the body into lines like BufferedReader.readLine, except that a
+     * line longer than maxLength is skipped instead of buffered, so one
+     * unterminated line cannot pull the whole body into memory.
+     */
+    private static final class LineReader {
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /** The next line without its terminator, or null at the end of input. */
+        String readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean started = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return started ? finish() : null;
+                    }
+                }
+                started = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return finish();
+                }
+            }
+        }
+
+        /** Whether the line last returned was dropped for exceeding maxLength. */
+        boolean tooLong() {
+            return tooLong;
+        }
+
+        private void append(int start, int end) {
+            if (tooLong) {
+                return;
+            }
+            if (line.length() + (end - start) > maxLength) {
+                tooLong = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, start, end - start);
+        }
+
+        private String finish() {
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return line.toString();
+        }
+    }
+
+    private class ImportState {
+        List<Transaction> pending = new ArrayList<>(batchSize);
+        final List<Long> pendingLines = new ArrayList<>();
+        final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        long totalRows;
+        long importedRows;
+        long failedRows;
+
+        void fail(long line, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorDTO(line, message));
+            }
+        }
+    }
+}
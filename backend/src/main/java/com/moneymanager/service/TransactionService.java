@@ -1,47 +1,414 @@
 package com.moneymanager.service;
 
+import com.moneymanager.dto.BatchItemResultDTO;
+import com.moneymanager.dto.BatchResultDTO;
+import com.moneymanager.dto.TransactionCursor;
+import com.moneymanager.dto.TransactionPageDTO;
+import com.moneymanager.dto.TimeBucketDTO;
+import com.moneymanager.dto.TransactionSearchResultDTO;
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Money;
 import com.moneymanager.model.Transaction;
+import com.moneymanager.repository.TimeBucketTotal;
 import com.moneymanager.repository.TransactionRepository;
+import com.moneymanager.search.TransactionSearchIndex;
+import com.moneymanager.search.TransactionSearchIndex.SearchHits;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TransactionService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SEARCH_WINDOW = 10_000;
+    public static final int MAX_RANGE_ROWS = 10_000;
+    public static final String GRANULARITY_DAY = "day";
+    public static final String GRANULARITY_WEEK = "week";
+    public static final String GRANULARITY_MONTH = "month";
+    public static final int MAX_BUCKETS = 400;
+    
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TransactionSearchIndex searchIndex;
+    
+    @Autowired
+    private CategoryCache categoryCache;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TableVersions tableVersions;
+    
+    @Value("${moneymanager.batch.max-items:500}")
+    private int maxBatchItems;
+    
     public List<Transaction> getAllTransactions() {
         return transactionRepository.findAllByOrderByDateDesc();
     }
     
+    /** Every transaction in [from, to]; a range holding more than MAX_RANGE_ROWS is rejected. */
+    public List<Transaction> getTransactionsBetween(LocalDate from, LocalDate to) {
+        // One extra row tells a full range from an oversized one
+        List<Transaction> rows = transactionRepository.findByDateBetweenOrderByDateDescIdDesc(from, to,
+                PageRequest.of(0, MAX_RANGE_ROWS + 1));
+        if (rows.size() > MAX_RANGE_ROWS) {
+            throw new IllegalArgumentException("The range holds more than " + MAX_RANGE_ROWS +
+                    " transactions; narrow it or use /api/transactions/page");
+        }
+        return rows;
+    }
+    
+    public TransactionPageDTO getTransactionPage(String cursor, Integer size) {
+        int pageSize = clampPageSize(size);
+        // Fetch one extra row to learn whether another page exists
+        PageRequest request = PageRequest.of(0, pageSize + 1);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findAllByOrderByDateDescIdDesc(request);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findPageAfter(after.getDate(), after.getId(), request);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = items.get(items.size() - 1);
+            nextCursor = new TransactionCursor(last.getDate(), last.getId()).encode();
+        }
+        return new TransactionPageDTO(items, nextCursor, hasMore);
+    }
+    
+    /**
+     * Full-text search over descriptions served by the in-memory index; only
+     * the returned page is loaded from the database, by primary key.
+     */
+    public TransactionSearchResultDTO searchTransactions(String query, String category, String type,
+                                                         LocalDate from, LocalDate to, int page, Integer size) {
+        int pageSize = clampPageSize(size);
+        if (page < 0 || (long) (page + 1) * pageSize > MAX_SEARCH_WINDOW) {
+            throw new IllegalArgumentException("Page is out of range; refine the search instead");
+        }
+        if (type != null && !"INCOME".equals(type) && !"EXPENSE".equals(type)) {
+            throw new IllegalArgumentException("type must be INCOME or EXPENSE");
+        }
+        long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        SearchHits hits = searchIndex.search(query, category, type, fromDay, toDay, page * pageSize, pageSize);
+        
+        Map<Long, Transaction> byId = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findAllById(hits.ids)) {
+            byId.put(transaction.getId(), transaction);
+        }
+        List<Transaction> items = new ArrayList<>(hits.ids.size());
+        for (Long id : hits.ids) {
+            Transaction transaction = byId.get(id);
+            if (transaction != null) {
+                items.add(transaction);
+            }
+        }
+        boolean hasMore = (long) (page + 1) * pageSize < hits.total;
+        return new TransactionSearchResultDTO(items, hits.total, page, pageSize, hasMore);
+    }
+    
     public Transaction saveTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        // Create the category and rollup bucket first, each in its own short
+        // transaction, so the write below holds exactly one pooled connection
+        categoryCache.idOf(transaction.getCategory());
+        rollupService.ensureBucket(RollupService.toPeriodMonth(transaction.getDate()),
+                transaction.getCategory(), transaction.getType());
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Transaction saved = transactionRepository.save(transaction);
+            rollupService.recordTransaction(saved);
+            tableVersions.touch(TableVersions.TRANSACTIONS);
+            eventPublisher.publishEvent(new TransactionsChangedEvent(List.of(saved)));
+            return saved;
+        });
+    }
+    
+    /**
+     * Creates every valid item in one database transaction; inserts are sent
+     * as JDBC batches and rollups get one increment per touched bucket.
+     * Invalid items are reported and skipped.
+     */
+    public BatchResultDTO createTransactions(List<Transaction> transactions) {
+        checkBatchSize(transactions.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Transaction> valid = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            String error = validationError(transaction);
+            if (error != null) {
+                results.add(BatchItemResultDTO.invalid(i, null, error));
+                continue;
+            }
+            transaction.setId(null);
+            valid.add(transaction);
+            indexes.add(i);
+        }
+        if (!valid.isEmpty()) {
+            prepareWrite(valid);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                transactionRepository.saveAll(valid);
+                rollupService.recordChanges(valid, List.of());
+                tableVersions.touch(TableVersions.TRANSACTIONS);
+                eventPublisher.publishEvent(new TransactionsChangedEvent(valid));
+            });
+            for (int i = 0; i < valid.size(); i++) {
+                results.add(BatchItemResultDTO.ok(indexes.get(i), valid.get(i).getId()));
+            }
+        }
+        return new BatchResultDTO(results);
+    }
+    
+    /**
+     * Replaces description, category, date, amount and type of every item
+     * found by id, in one database transaction. The rows are loaded with one
+     * IN query and written back as batched UPDATEs.
+     */
+    public BatchResultDTO updateTransactions(List<Transaction> transactions) {
+        checkBatchSize(transactions.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Transaction> valid = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            String error = transaction != null && transaction.getId() == null ? "id is required" : validationError(transaction);
+            if (error == null && !seen.add(transaction.getId())) {
+                error = "Duplicate id in batch";
+            }
+            if (error != null) {
+                results.add(BatchItemResultDTO.invalid(i, transaction != null ? transaction.getId() : null, error));
+            } else {
+                valid.put(i, transaction);
+            }
+        }
+        if (valid.isEmpty()) {
+            return new BatchResultDTO(results);
+        }
+        prepareWrite(new ArrayList<>(valid.values()));
+        results.addAll(new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Long, Transaction> existing = new HashMap<>();
+            for (Transaction transaction : transactionRepository.findAllById(seen)) {
+                existing.put(transaction.getId(), transaction);
+            }
+            List<BatchItemResultDTO> applied = new ArrayList<>();
+            List<Transaction> removed = new ArrayList<>();
+            List<Transaction> added = new ArrayList<>();
+            valid.forEach((index, details) -> {
+                Transaction transaction = existing.get(details.getId());
+                if (transaction == null) {
+                    applied.add(BatchItemResultDTO.notFound(index, details.getId()));
+                    return;
+                }
+                removed.add(copyOf(transaction));
+                transaction.setDescription(details.getDescription());
+                transaction.setCategory(details.getCategory());
+                transaction.setDate(details.getDate());
+                transaction.setAmount(details.getAmount());
+                transaction.setType(details.getType());
+                added.add(transaction);
+                applied.add(BatchItemResultDTO.ok(index, transaction.getId()));
+            });
+            if (!added.isEmpty()) {
+                rollupService.recordChanges(added, removed);
+                tableVersions.touch(TableVersions.TRANSACTIONS);
+                eventPublisher.publishEvent(new TransactionsChangedEvent(added, removed));
+            }
+            return applied;
+        }));
+        return new BatchResultDTO(results);
     }
     
-    public Double getTotalIncome() {
-        List<Transaction> incomeTransactions = transactionRepository.findByType("INCOME");
-        double total = 0.0;
-        for (Transaction transaction : incomeTransactions) {
-            total += transaction.getAmount();
+    /** Deletes the given ids with a single DELETE ... WHERE id IN statement. */
+    public BatchResultDTO deleteTransactions(List<Long> ids) {
+        checkBatchSize(ids.size());
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Map<Integer, Long> valid = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null || !seen.add(id)) {
+                results.add(BatchItemResultDTO.invalid(i, id, id == null ? "id is required" : "Duplicate id in batch"));
+            } else {
+                valid.put(i, id);
+            }
+        }
+        if (valid.isEmpty()) {
+            return new BatchResultDTO(results);
         }
-        return total;
+        Set<Long> deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Transaction> removed = transactionRepository.findAllById(seen);
+            Set<Long> removedIds = new HashSet<>();
+            for (Transaction transaction : removed) {
+                removedIds.add(transaction.getId());
+            }
+            if (!removed.isEmpty()) {
+                transactionRepository.deleteAllByIdInBatch(removedIds);
+                rollupService.recordChanges(List.of(), removed);
+                tableVersions.touch(TableVersions.TRANSACTIONS);
+                eventPublisher.publishEvent(new TransactionsChangedEvent(List.of(), removed));
+            }
+            return removedIds;
+        });
+        valid.forEach((index, id) -> results.add(deleted.contains(id)
+                ? BatchItemResultDTO.ok(index, id)
+                : BatchItemResultDTO.notFound(index, id)));
+        return new BatchResultDTO(results);
     }
     
-    public Double getTotalExpenses() {
-        List<Transaction> expenseTransactions = transactionRepository.findByType("EXPENSE");
-        double total = 0.0;
-        for (Transaction transaction : expenseTransactions) {
-            total += transaction.getAmount();
+    public Transaction updateTransaction(Long id, Transaction transactionDetails) {
+        transactionDetails.setId(id);
+        BatchItemResultDTO result = updateTransactions(List.of(transactionDetails)).getResults().get(0);
+        if (BatchItemResultDTO.STATUS_INVALID.equals(result.getStatus())) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+        if (BatchItemResultDTO.STATUS_NOT_FOUND.equals(result.getStatus())) {
+            return null;
         }
-        return total;
+        return transactionRepository.findById(id).orElse(null);
+    }
+    
+    public boolean deleteTransaction(Long id) {
+        BatchItemResultDTO result = deleteTransactions(List.of(id)).getResults().get(0);
+        return BatchItemResultDTO.STATUS_OK.equals(result.getStatus());
+    }
+    
+    /**
+     * Sums and counts per day, ISO week or month over [from, to], grouped by
+     * type and optionally category. The grouping runs in the database, so the
+     * response size depends on the number of buckets, not on the row count.
+     */
+    public List<TimeBucketDTO> getTimeBuckets(String granularity, boolean byCategory, LocalDate from, LocalDate to) {
+        String unit;
+        ChronoUnit step;
+        if (GRANULARITY_DAY.equals(granularity)) {
+            unit = "DAY";
+            step = ChronoUnit.DAYS;
+        } else if (GRANULARITY_WEEK.equals(granularity)) {
+            unit = "WEEK";
+            step = ChronoUnit.WEEKS;
+        } else if (GRANULARITY_MONTH.equals(granularity)) {
+            unit = "MONTH";
+            step = ChronoUnit.MONTHS;
+        } else {
+            throw new IllegalArgumentException("granularity must be day, week or month");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        // Default to a window of about 30 buckets ending at 'to'
+        LocalDate start = from != null ? from : end.minus(29, step);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (step.between(start, end) >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_BUCKETS + " buckets; use a coarser granularity");
+        }
+        
+        List<TimeBucketTotal> rows = byCategory
+                ? transactionRepository.sumByBucketTypeAndCategory(unit, start, end)
+                : transactionRepository.sumByBucketAndType(unit, start, end);
+        List<TimeBucketDTO> buckets = new ArrayList<>(rows.size());
+        for (TimeBucketTotal row : rows) {
+            String category = row.getCategoryId() != null ? categoryCache.nameOf(row.getCategoryId()) : null;
+            buckets.add(new TimeBucketDTO(periodLabel(granularity, row.getPeriodStart()), row.getPeriodStart(),
+                    row.getType(), category, Money.ofCents(row.getTotal()), row.getCount()));
+        }
+        return buckets;
+    }
+    
+    private static String periodLabel(String granularity, LocalDate start) {
+        if (GRANULARITY_WEEK.equals(granularity)) {
+            return String.format("%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR), start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+        if (GRANULARITY_MONTH.equals(granularity)) {
+            return YearMonth.from(start).toString();
+        }
+        return start.toString();
     }
     
     public List<Transaction> getRecentTransactions(int limit) {
-        List<Transaction> allTransactions = getAllTransactions();
-        return allTransactions.stream()
-                .limit(limit)
-                .toList();
+        return transactionRepository.findAllByOrderByDateDescIdDesc(PageRequest.of(0, clampPageSize(limit)));
+    }
+    
+    private void checkBatchSize(int size) {
+        if (size > maxBatchItems) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxBatchItems + " items");
+        }
+    }
+    
+    // Same rules as the bulk import; normalizes the type to upper case
+    private static String validationError(Transaction transaction) {
+        if (transaction == null) {
+            return "Item is empty";
+        }
+        if (transaction.getDescription() == null || transaction.getDescription().isEmpty()) {
+            return "description is required";
+        }
+        if (transaction.getCategory() == null || transaction.getCategory().isEmpty()) {
+            return "category is required";
+        }
+        if (transaction.getDate() == null) {
+            return "date is required";
+        }
+        if (transaction.getAmount() == null || !transaction.getAmount().isPositive()) {
+            return "amount must be positive";
+        }
+        String type = transaction.getType() == null ? "" : transaction.getType().toUpperCase(Locale.ROOT);
+        if (!"INCOME".equals(type) && !"EXPENSE".equals(type)) {
+            return "type must be INCOME or EXPENSE";
+        }
+        transaction.setType(type);
+        return null;
+    }
+    
+    // Categories and rollup buckets are created before the write transaction
+    // opens, as in saveTransaction
+    private void prepareWrite(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            categoryCache.idOf(transaction.getCategory());
+        }
+        rollupService.ensureBuckets(transactions);
+    }
+    
+    private static Transaction copyOf(Transaction transaction) {
+        Transaction copy = new Transaction(transaction.getDescription(), transaction.getCategory(),
+                transaction.getDate(), transaction.getAmount(), transaction.getType());
+        copy.setId(transaction.getId());
+        return copy;
+    }
+    
+    private int clampPageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 }
@@ -0,0 +1,12 @@
+package com.moneymanager.sql;
+
+/**
+ * Thrown after a request that went over its query budget while budgets are
+ * enforced, so the test or load run that issued it fails.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,219 @@
+package com.moneymanager.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts the SQL each request runs and reports it in X-Query-Count,
+ * X-Query-Rows and X-Query-Time-Ms response headers and in a log line with
+ * the same values as MDC fields. Budgets cap the statements and rows per
+ * endpoint, keyed by method and mapping pattern (e.g.
+ * {@code PATCH /api/bills/{id}/toggle-status}). Going over is logged as a
+ * warning, or with enforcement on (meant for tests) fails the request, so an
+ * N+1 query or an accidental full scan breaks the build instead of
+ * production.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_STATEMENTS = "X-Query-Count";
+    public static final String HEADER_ROWS = "X-Query-Rows";
+    public static final String HEADER_TIME = "X-Query-Time-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    // Comma-separated "METHOD /pattern=statements" or "METHOD /pattern=statements/rows"
+    @Value("${moneymanager.query-budget.limits:}")
+    private String limits;
+
+    // -1 leaves endpoints without an entry in limits unbounded
+    @Value("${moneymanager.query-budget.default-statements:-1}")
+    private int defaultStatements;
+
+    @Value("${moneymanager.query-budget.default-rows:-1}")
+    private long defaultRows;
+
+    @Value("${moneymanager.query-budget.enforce:false}")
+    private boolean enforce;
+
+    private final Map<String, Budget> budgets = new HashMap<>();
+    private Budget defaultBudget;
+
+    @PostConstruct
+    void parseLimits() {
+        defaultBudget = new Budget(defaultStatements, defaultRows);
+        for (String entry : limits.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Query budget entry must be endpoint=statements[/rows]: " + entry);
+            }
+            String[] caps = entry.substring(separator + 1).trim().split("/");
+            long rows = caps.length > 1 ? Long.parseLong(caps[1].trim()) : -1;
+            budgets.put(normalize(entry.substring(0, separator)), new Budget(Integer.parseInt(caps[0].trim()), rows));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        StatsResponse statsResponse = new StatsResponse(request, response, stats);
+        try {
+            filterChain.doFilter(request, statsResponse);
+        } finally {
+            QueryStats.end();
+        }
+        // Responses that were never written, like a 304, still get the headers
+        statsResponse.writeHeaders();
+
+        String endpoint = endpoint(request);
+        String exceeded = exceeded(endpoint, stats);
+        MDC.put("queryCount", Integer.toString(stats.getStatements()));
+        MDC.put("queryRows", Long.toString(stats.getRows()));
+        MDC.put("queryTimeMs", String.format(Locale.ROOT, "%.3f", stats.getMillis()));
+        try {
+            if (exceeded != null) {
+                log.warn("{} went over its query budget: {}", endpoint, exceeded);
+            } else {
+                log.debug("{}: {} statements, {} rows, {} ms in JDBC", endpoint, stats.getStatements(),
+                        stats.getRows(), String.format(Locale.ROOT, "%.3f", stats.getMillis()));
+            }
+        } finally {
+            MDC.remove("queryCount");
+            MDC.remove("queryRows");
+            MDC.remove("queryTimeMs");
+        }
+        if (exceeded != null && enforce) {
+            // Only reached when the budget ran out after the response was committed; a test client still sees it
+            throw new QueryBudgetExceededException(endpoint + " went over its query budget: " + exceeded);
+        }
+    }
+
+    private String exceeded(String endpoint, QueryStats stats) {
+        return budgets.getOrDefault(endpoint, defaultBudget).exceeded(stats);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static String normalize(String endpoint) {
+        String[] parts = endpoint.trim().split("\\s+", 2);
+        return parts.length < 2 ? endpoint.trim() : parts[0].toUpperCase(Locale.ROOT) + " " + parts[1];
+    }
+
+    private static final class Budget {
+        final int statements;
+        final long rows;
+
+        Budget(int statements, long rows) {
+            this.statements = statements;
+            this.rows = rows;
+        }
+
+        // What went over, or null when the request stayed within budget
+        String exceeded(QueryStats stats) {
+            if (statements >= 0 && stats.getStatements() > statements) {
+                return stats.getStatements() + " statements, budget " + statements;
+            }
+            if (rows >= 0 && stats.getRows() > rows) {
+                return stats.getRows() + " rows, budget " + rows;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sets the headers just before the response is committed, which for a
+     * body is when the first byte is about to be written; serialization runs
+     * after that, so lazy loads it triggers show up in the log but not in the
+     * headers. With enforcement on, a budget that has already run out fails
+     * the request here, while it can still become a clean 500.
+     */
+    private final class StatsResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final QueryStats stats;
+
+        StatsResponse(HttpServletRequest request, HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.request = request;
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (isCommitted()) {
+                return;
+            }
+            setHeader(HEADER_STATEMENTS, Integer.toString(stats.getStatements()));
+            setHeader(HEADER_ROWS, Long.toString(stats.getRows()));
+            setHeader(HEADER_TIME, String.format(Locale.ROOT, "%.3f", stats.getMillis()));
+            if (enforce) {
+                String endpoint = endpoint(request);
+                String exceeded = exceeded(endpoint, stats);
+                if (exceeded != null) {
+                    log.warn("{} went over its query budget: {}", endpoint, exceeded);
+                    throw new QueryBudgetExceededException(endpoint + " went over its query budget: " + exceeded);
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.moneymanager.sql;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statements executed, rows read and time spent in JDBC on behalf of one HTTP
+ * request. {@link QueryBudgetFilter} binds it to the request thread; work the
+ * request hands to a pool is counted as well when the task is wrapped with
+ * {@link #propagate(Callable)}. Outside a request nothing is counted.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    // Atomic because propagated tasks record from pool threads
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /** Wraps {@code task} so the statements it runs count towards the calling request. */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        QueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            QueryStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statements.incrementAndGet();
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    void recordRow() {
+        rows.incrementAndGet();
+    }
+
+    public int getStatements() { return statements.get(); }
+
+    public long getRows() { return rows.get(); }
+
+    public double getMillis() { return nanos.get() / 1_000_000.0; }
+}
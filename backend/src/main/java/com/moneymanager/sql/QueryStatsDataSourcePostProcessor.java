@@ -0,0 +1,93 @@
+package com.moneymanager.sql;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Wraps the connection pool in a datasource-proxy that feeds {@link QueryStats}:
+ * one statement per execute call (a JDBC batch counts once, as it is one round
+ * trip) and one row per successful {@code ResultSet.next()}. The listeners
+ * return straight away on threads that are not serving a request, and result
+ * sets read there are not proxied at all, so bulk loads such as the startup
+ * projections read rows at full speed.
+ */
+@Component
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String START_NANOS = "queryStats.start";
+
+    @Value("${moneymanager.query-stats.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                .listener(new StatementCounter())
+                .methodListener(new RowCounter())
+                .proxyResultSet()
+                .jdbcProxyFactory(new RequestScopedProxyFactory())
+                .build();
+    }
+
+    private static final class RequestScopedProxyFactory extends JdkJdbcProxyFactory {
+
+        @Override
+        public ResultSet createResultSet(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+            return QueryStats.current() != null ? super.createResultSet(resultSet, connectionInfo, proxyConfig) : resultSet;
+        }
+    }
+
+    private static final class StatementCounter implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (QueryStats.current() != null) {
+                execInfo.addCustomValue(START_NANOS, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStats stats = QueryStats.current();
+            Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+            if (stats != null && start != null) {
+                stats.recordStatement(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static final class RowCounter implements MethodExecutionListener {
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            QueryStats stats = QueryStats.current();
+            if (stats != null && executionContext.getTarget() instanceof ResultSet
+                    && Boolean.TRUE.equals(executionContext.getResult())
+                    && "next".equals(executionContext.getMethod().getName())) {
+                stats.recordRow();
+            }
+        }
+    }
+}
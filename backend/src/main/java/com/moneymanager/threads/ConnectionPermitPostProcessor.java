@@ -0,0 +1,126 @@
+package com.moneymanager.threads;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In virtual-thread mode, gates connection checkout with a fair semaphore
+ * sized to the pool. Thousands of virtual threads can be waiting on the
+ * database at once; they queue here in arrival order and cheaply, instead of
+ * all contending inside the pool, and time out the same way the pool would.
+ * A permit is held from checkout until the connection is closed. In
+ * platform-thread mode Tomcat's worker limit already bounds the callers and
+ * nothing is wrapped.
+ */
+@Component
+public class ConnectionPermitPostProcessor implements BeanPostProcessor {
+
+    @Value("${moneymanager.threads.virtual:false}")
+    private boolean virtual;
+
+    @Value("${moneymanager.threads.db-permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int permits;
+
+    @Value("${moneymanager.threads.db-permit-timeout-ms:30000}")
+    private long timeoutMillis;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!virtual || !VirtualThreads.available() || !(bean instanceof DataSource)
+                || bean instanceof PermitDataSource) {
+            return bean;
+        }
+        return new PermitDataSource((DataSource) bean, new Semaphore(permits, true), timeoutMillis);
+    }
+
+    static final class PermitDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final long timeoutMillis;
+
+        PermitDataSource(DataSource target, Semaphore permits, long timeoutMillis) {
+            super(target);
+            this.permits = permits;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException(
+                            "No database connection permit within " + timeoutMillis + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a database connection permit", e);
+            }
+        }
+
+        private Connection releasingOnClose(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                    try {
+                        return invoke(connection, method, args);
+                    } finally {
+                        permits.release();
+                    }
+                }
+                return invoke(connection, method, args);
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, handler);
+        }
+
+        private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.moneymanager.threads;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * With moneymanager.threads.virtual=true, Tomcat hands every request to a new
+ * virtual thread instead of its bounded worker pool, so a request blocked on
+ * JDBC no longer holds a platform thread and server.tomcat.threads.max stops
+ * capping concurrency. The database is protected by the connection permits of
+ * {@link ConnectionPermitPostProcessor} instead. Needs Java 21; on an older
+ * runtime a warning is logged and the worker pool stays.
+ */
+@Component
+public class VirtualThreadTomcatCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadTomcatCustomizer.class);
+
+    @Value("${moneymanager.threads.virtual:false}")
+    private boolean virtual;
+
+    private ExecutorService executor;
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        if (!virtual) {
+            return;
+        }
+        executor = VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+        if (executor == null) {
+            log.warn("moneymanager.threads.virtual is set but Java {} has no virtual threads; " +
+                    "requests stay on Tomcat's platform thread pool", Runtime.version().feature());
+            return;
+        }
+        factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(executor));
+        log.info("Tomcat requests run on virtual threads");
+    }
+
+    // Tomcat leaves executors it did not create running
+    @PreDestroy
+    void stopExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.moneymanager.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive ints, used for posting lists in the in-memory
+ * indexes. Not thread-safe; callers guard it with their own lock.
+ */
+public class IntList {
+
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(4);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int last() {
+        return values[size - 1];
+    }
+
+    /** Backing array; only the first {@link #size()} entries are valid. */
+    public int[] array() {
+        return values;
+    }
+}
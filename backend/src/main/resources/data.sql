@@ -4,26 +4,36 @@
 INSERT INTO users (username, password, email, full_name) VALUES
 ('admin', 'password123', 'admin@example.com', 'Madhuka');
 
--- Insert sample transactions
-INSERT INTO transactions (description, category, date, amount, type) VALUES
-('Amazon Purchase Online Shopping', 'Shopping', '2023-10-12', 89.99, 'EXPENSE'),
-('Monthly Salary Company Inc.', 'Income', '2023-10-10', 3500.00, 'INCOME'),
-('Restaurant Dinner Italian Blanco', 'Food & Dining', '2023-10-08', 67.50, 'EXPENSE'),
-('Gas Station Fuel', 'Transportation', '2023-10-05', 45.20, 'EXPENSE'),
-('Internet Bill Monthly Subscription', 'Bills & Utilities', '2023-10-03', 79.99, 'EXPENSE'),
-('Freelance Project Payment', 'Income', '2023-10-01', 1200.00, 'INCOME'),
-('Grocery Shopping', 'Food & Dining', '2023-09-28', 120.50, 'EXPENSE'),
-('Netflix Subscription', 'Entertainment', '2023-09-25', 15.99, 'EXPENSE'),
-('Electricity Bill', 'Bills & Utilities', '2023-09-20', 85.75, 'EXPENSE'),
-('Bonus Payment', 'Income', '2023-09-15', 500.00, 'INCOME'),
-('Uber Ride', 'Transportation', '2023-09-10', 25.50, 'EXPENSE'),
-('Clothing Purchase', 'Shopping', '2023-09-05', 89.99, 'EXPENSE'),
-('Stock Dividend', 'Investment', '2023-09-01', 150.00, 'INCOME');
+-- Insert categories referenced by the sample data
+INSERT INTO categories (name) VALUES
+('Shopping'),
+('Income'),
+('Food & Dining'),
+('Transportation'),
+('Bills & Utilities'),
+('Entertainment'),
+('Investment');
 
--- Insert sample budgets
-INSERT INTO budgets (category, allocated_amount, spent_amount, remaining_amount, percentage_spent) VALUES
-('Food & Dining', 600.00, 187.50, 412.50, 31),
-('Transportation', 300.00, 70.70, 229.30, 24),
-('Shopping', 300.00, 179.98, 120.02, 60),
-('Bills & Utilities', 500.00, 165.74, 334.26, 33),
-('Entertainment', 150.00, 15.99, 134.01, 11);
\ No newline at end of file
+-- Insert sample transactions (amounts in cents; ids drawn from the same pooled sequence Hibernate uses)
+INSERT INTO transactions (id, description, category_id, date, amount_cents, type) VALUES
+(NEXT VALUE FOR transactions_seq, 'Amazon Purchase Online Shopping', (SELECT id FROM categories WHERE name = 'Shopping'), '2023-10-12', 8999, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Monthly Salary Company Inc.', (SELECT id FROM categories WHERE name = 'Income'), '2023-10-10', 350000, 'INCOME'),
+(NEXT VALUE FOR transactions_seq, 'Restaurant Dinner Italian Blanco', (SELECT id FROM categories WHERE name = 'Food & Dining'), '2023-10-08', 6750, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Gas Station Fuel', (SELECT id FROM categories WHERE name = 'Transportation'), '2023-10-05', 4520, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Internet Bill Monthly Subscription', (SELECT id FROM categories WHERE name = 'Bills & Utilities'), '2023-10-03', 7999, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Freelance Project Payment', (SELECT id FROM categories WHERE name = 'Income'), '2023-10-01', 120000, 'INCOME'),
+(NEXT VALUE FOR transactions_seq, 'Grocery Shopping', (SELECT id FROM categories WHERE name = 'Food & Dining'), '2023-09-28', 12050, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Netflix Subscription', (SELECT id FROM categories WHERE name = 'Entertainment'), '2023-09-25', 1599, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Electricity Bill', (SELECT id FROM categories WHERE name = 'Bills & Utilities'), '2023-09-20', 8575, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Bonus Payment', (SELECT id FROM categories WHERE name = 'Income'), '2023-09-15', 50000, 'INCOME'),
+(NEXT VALUE FOR transactions_seq, 'Uber Ride', (SELECT id FROM categories WHERE name = 'Transportation'), '2023-09-10', 2550, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Clothing Purchase', (SELECT id FROM categories WHERE name = 'Shopping'), '2023-09-05', 8999, 'EXPENSE'),
+(NEXT VALUE FOR transactions_seq, 'Stock Dividend', (SELECT id FROM categories WHERE name = 'Investment'), '2023-09-01', 15000, 'INCOME');
+
+-- Insert sample budgets (amounts in cents)
+INSERT INTO budgets (id, category_id, allocated_cents, spent_cents, remaining_cents, percentage_spent) VALUES
+(NEXT VALUE FOR budgets_seq, (SELECT id FROM categories WHERE name = 'Food & Dining'), 60000, 18750, 41250, 31),
+(NEXT VALUE FOR budgets_seq, (SELECT id FROM categories WHERE name = 'Transportation'), 30000, 7070, 22930, 24),
+(NEXT VALUE FOR budgets_seq, (SELECT id FROM categories WHERE name = 'Shopping'), 30000, 17998, 12002, 60),
+(NEXT VALUE FOR budgets_seq, (SELECT id FROM categories WHERE name = 'Bills & Utilities'), 50000, 16574, 33426, 33),
+(NEXT VALUE FOR budgets_seq, (SELECT id FROM categories WHERE name = 'Entertainment'), 15000, 1599, 13401, 11);
\ No newline at end of file
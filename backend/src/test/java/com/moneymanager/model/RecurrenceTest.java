@@ -0,0 +1,76 @@
+package com.moneymanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expansion of recurring bill series: every occurrence is derived from the
+ * anchor, so month-end clamping never drifts and intervals and end dates
+ * bound the series exactly.
+ */
+class RecurrenceTest {
+
+    @Test
+    void monthEndAnchorClampsWithoutDrifting() {
+        Bill rent = series(LocalDate.of(2024, 1, 31), Recurrence.MONTHLY, null, null);
+
+        assertEquals(List.of(
+                LocalDate.of(2024, 1, 31),
+                LocalDate.of(2024, 2, 29),
+                LocalDate.of(2024, 3, 31),
+                LocalDate.of(2024, 4, 30),
+                LocalDate.of(2024, 5, 31)),
+                rent.occurrencesBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 5, 31)));
+        assertEquals(LocalDate.of(2025, 2, 28), Recurrence.MONTHLY.occurrence(LocalDate.of(2024, 1, 31), 13, 1));
+    }
+
+    @Test
+    void windowStartingAfterAClampedDateSkipsToTheNextOccurrence() {
+        LocalDate anchor = LocalDate.of(2024, 1, 31);
+
+        // Feb 29 is the clamped occurrence 1, so the first on or after Mar 1 is occurrence 2
+        assertEquals(2, Recurrence.MONTHLY.firstIndexOnOrAfter(anchor, LocalDate.of(2024, 3, 1), 1));
+        assertEquals(1, Recurrence.MONTHLY.firstIndexOnOrAfter(anchor, LocalDate.of(2024, 2, 29), 1));
+        assertEquals(0, Recurrence.MONTHLY.firstIndexOnOrAfter(anchor, LocalDate.of(2023, 12, 1), 1));
+    }
+
+    @Test
+    void intervalGreaterThanOneSkipsUnits() {
+        Bill quarterly = series(LocalDate.of(2024, 1, 31), Recurrence.MONTHLY, 3, null);
+        Bill fortnightly = series(LocalDate.of(2024, 1, 1), Recurrence.WEEKLY, 2, null);
+
+        assertEquals(List.of(LocalDate.of(2024, 4, 30), LocalDate.of(2024, 7, 31), LocalDate.of(2024, 10, 31)),
+                quarterly.occurrencesBetween(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 12, 31)));
+        assertEquals(List.of(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 29), LocalDate.of(2024, 2, 12)),
+                fortnightly.occurrencesBetween(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 2, 20)));
+        assertTrue(fortnightly.occursOn(LocalDate.of(2024, 1, 29)));
+        assertFalse(fortnightly.occursOn(LocalDate.of(2024, 1, 22)));
+    }
+
+    @Test
+    void endDateIsTheLastPossibleOccurrence() {
+        Bill daily = series(LocalDate.of(2024, 3, 1), Recurrence.DAILY, 2, LocalDate.of(2024, 3, 7));
+        Bill monthly = series(LocalDate.of(2024, 1, 15), Recurrence.MONTHLY, null, LocalDate.of(2024, 3, 15));
+
+        assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 5),
+                LocalDate.of(2024, 3, 7)),
+                daily.occurrencesBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        assertEquals(List.of(LocalDate.of(2024, 2, 15), LocalDate.of(2024, 3, 15)),
+                monthly.occurrencesBetween(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 12, 31)));
+        assertFalse(monthly.occursOn(LocalDate.of(2024, 4, 15)));
+    }
+
+    private static Bill series(LocalDate anchor, Recurrence recurrence, Integer interval, LocalDate end) {
+        Bill bill = new Bill("Series", Money.ofCents(1000), anchor, "Bills");
+        bill.setRecurrence(recurrence);
+        bill.setRecurrenceInterval(interval);
+        bill.setRecurrenceEnd(end);
+        return bill;
+    }
+}
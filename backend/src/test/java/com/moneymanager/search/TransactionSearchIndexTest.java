@@ -0,0 +1,155 @@
+package com.moneymanager.search;
+
+import com.moneymanager.event.TransactionsChangedEvent;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.search.TransactionSearchIndex.SearchHits;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Query semantics of the in-memory search index. Rows are indexed directly
+ * with ids far above the sample data, and every test uses its own made-up
+ * words, so the tests neither touch the transactions table nor see each
+ * other's rows.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:searchindex")
+class TransactionSearchIndexTest {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(500_000_000L);
+    private static final long ANY_DAY_FROM = Long.MIN_VALUE;
+    private static final long ANY_DAY_TO = Long.MAX_VALUE;
+
+    @Autowired
+    private TransactionSearchIndex index;
+
+    @Test
+    void everyTokenMatchesExactlyExceptTheLastWhichMatchesAsPrefix() {
+        long grocer = add("Quorvex grocer Mainstreet", "Food", "2024-03-01", "EXPENSE");
+        long grocery = add("quorvex GROCERY delivery", "Food", "2024-03-02", "EXPENSE");
+        add("Quorvex pharmacy", "Health", "2024-03-03", "EXPENSE");
+
+        assertEquals(List.of(grocery, grocer), search("quorvex groc").ids);
+        assertEquals(List.of(grocery), search("quorvex grocery").ids);
+        // Only the last token is a prefix
+        assertEquals(List.of(), search("quorv grocer").ids);
+        assertEquals(List.of(grocery), search("Delivery, QUORVEX!").ids);
+        assertEquals(List.of(), search("quorvex unknownword").ids);
+    }
+
+    @Test
+    void categoryTypeAndDateFiltersCombineWithTokens() {
+        long march = add("Blentari salary", "Income", "2024-03-25", "INCOME");
+        long april = add("Blentari salary", "Income", "2024-04-25", "INCOME");
+        long refund = add("Blentari refund", "Shopping", "2024-04-02", "INCOME");
+        long purchase = add("Blentari purchase", "Shopping", "2024-04-01", "EXPENSE");
+
+        assertEquals(List.of(april, refund, purchase, march), search("blentari").ids);
+        assertEquals(List.of(refund, purchase), index.search("blentari", "Shopping", null,
+                ANY_DAY_FROM, ANY_DAY_TO, 0, 10).ids);
+        assertEquals(List.of(refund), index.search("blentari", "Shopping", "INCOME",
+                ANY_DAY_FROM, ANY_DAY_TO, 0, 10).ids);
+        assertEquals(List.of(april, refund), index.search("blentari", null, "INCOME",
+                day("2024-04-01"), day("2024-04-30"), 0, 10).ids);
+        // Date bounds are inclusive
+        assertEquals(List.of(march), index.search("blentari", null, null,
+                day("2024-03-25"), day("2024-03-25"), 0, 10).ids);
+        assertEquals(List.of(), index.search("blentari", "No Such Category", null,
+                ANY_DAY_FROM, ANY_DAY_TO, 0, 10).ids);
+    }
+
+    @Test
+    void removedRowsDisappearAndUpdatedRowsAreFoundByTheirNewText() {
+        long kept = add("Ostrivan rent", "Housing", "2024-05-01", "EXPENSE");
+        long removed = add("Ostrivan deposit", "Housing", "2024-05-02", "EXPENSE");
+        Transaction old = transaction(NEXT_ID.incrementAndGet(), "Ostrivan parking", "Transport", "2024-05-03", "EXPENSE");
+        index.add(old);
+
+        index.remove(removed);
+        Transaction updated = transaction(old.getId(), "Ostrivan garage", "Housing", "2024-05-04", "EXPENSE");
+        index.onTransactionsChanged(new TransactionsChangedEvent(List.of(updated), List.of(old)));
+
+        assertEquals(List.of(updated.getId(), kept), search("ostrivan").ids);
+        assertEquals(List.of(), search("ostrivan parking").ids);
+        assertEquals(List.of(updated.getId()), search("ostrivan garage").ids);
+        assertEquals(List.of(updated.getId(), kept), index.search("ostrivan", "Housing", null,
+                ANY_DAY_FROM, ANY_DAY_TO, 0, 10).ids);
+        assertEquals(List.of(), index.search("ostrivan", "Transport", null, ANY_DAY_FROM, ANY_DAY_TO, 0, 10).ids);
+    }
+
+    @Test
+    void resultsStayCorrectAcrossCompaction() {
+        List<Long> survivors = new ArrayList<>();
+        List<Long> doomed = new ArrayList<>();
+        LocalDate start = LocalDate.parse("2023-01-01");
+        for (int i = 0; i < 1500; i++) {
+            long id = add("Truvalen item" + i, i % 2 == 0 ? "Food" : "Travel", start.plusDays(i % 300).toString(),
+                    i % 3 == 0 ? "INCOME" : "EXPENSE");
+            (i < 1100 ? doomed : survivors).add(id);
+        }
+        // Enough tombstones to trigger a compaction
+        doomed.forEach(index::remove);
+
+        SearchHits hits = index.search("truvalen", null, null, ANY_DAY_FROM, ANY_DAY_TO, 0, 1000);
+        assertEquals(survivors.size(), hits.total);
+        assertEquals(survivors.size(), hits.ids.size());
+        assertEquals(List.of(survivors.get(0)), search("truvalen item1100").ids);
+        assertEquals(List.of(), search("truvalen item1099").ids);
+    }
+
+    @Test
+    void pagesAreOrderedByDateThenIdNewestFirst() {
+        long a = add("Pemmoric fee", "Fees", "2024-06-01", "EXPENSE");
+        long b = add("Pemmoric fee", "Fees", "2024-06-03", "EXPENSE");
+        long c = add("Pemmoric fee", "Fees", "2024-06-01", "EXPENSE");
+        long d = add("Pemmoric fee", "Fees", "2024-06-02", "EXPENSE");
+        long e = add("Pemmoric fee", "Fees", "2024-06-03", "EXPENSE");
+
+        SearchHits first = index.search("pemmoric", null, null, ANY_DAY_FROM, ANY_DAY_TO, 0, 2);
+        SearchHits second = index.search("pemmoric", null, null, ANY_DAY_FROM, ANY_DAY_TO, 2, 2);
+        SearchHits third = index.search("pemmoric", null, null, ANY_DAY_FROM, ANY_DAY_TO, 4, 2);
+
+        assertEquals(List.of(e, b), first.ids);
+        assertEquals(List.of(d, c), second.ids);
+        assertEquals(List.of(a), third.ids);
+        assertEquals(5, first.total);
+        assertEquals(5, third.total);
+    }
+
+    @Test
+    void aSearchWithoutTokensOrCategoryIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search("", null, "EXPENSE", ANY_DAY_FROM, ANY_DAY_TO, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search(" ,.; ", null, null, day("2024-01-01"), day("2024-12-31"), 0, 10));
+    }
+
+    private SearchHits search(String query) {
+        return index.search(query, null, null, ANY_DAY_FROM, ANY_DAY_TO, 0, 100);
+    }
+
+    private long add(String description, String category, String date, String type) {
+        Transaction transaction = transaction(NEXT_ID.incrementAndGet(), description, category, date, type);
+        index.add(transaction);
+        return transaction.getId();
+    }
+
+    private static Transaction transaction(long id, String description, String category, String date, String type) {
+        Transaction transaction = new Transaction(description, category, LocalDate.parse(date), Money.ofCents(1234), type);
+        transaction.setId(id);
+        return transaction;
+    }
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+}
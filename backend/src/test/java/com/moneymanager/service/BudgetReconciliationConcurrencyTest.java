@@ -0,0 +1,133 @@
+package com.moneymanager.service;
+
+import com.moneymanager.dto.ReconciliationReportDTO;
+import com.moneymanager.model.Budget;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In async spend mode, expenses committed while a reconciliation runs must
+ * be counted once: either by the reconciliation or by the next flush. They
+ * must not wait for the ledger scan either.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconcile",
+        "moneymanager.budget.spend-mode=async",
+        "moneymanager.budget.flush-interval-ms=3600000",
+        "moneymanager.budget.reconcile.cron=-"
+})
+class BudgetReconciliationConcurrencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int EXPENSES = 150;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BudgetReconciliationService reconciliationService;
+
+    @Autowired
+    private BudgetSpendTracker budgetSpendTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void expensesCommittedDuringReconciliationAreCountedOnce() throws Exception {
+        String category = "Reconcile Stress";
+        transactionService.saveTransaction(new Transaction("Reconcile warm-up", category, LocalDate.of(2024, 2, 1),
+                Money.ofCents(100), "EXPENSE"));
+        Budget budget = budgetService.saveBudget(new Budget(category, Money.ofCents(1_000_000), null, null, null));
+        reconciliationService.reconcile();
+        AtomicLong expected = new AtomicLong(100);
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < EXPENSES; i++) {
+                        long cents = 100 + writer * 10 + i;
+                        transactionService.saveTransaction(new Transaction("Reconcile " + writer + "/" + i, category,
+                                LocalDate.of(2024, 2, 1), Money.ofCents(cents), "EXPENSE"));
+                        expected.addAndGet(cents);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reconciler = pool.submit(() -> {
+                while (writing.get()) {
+                    reconciliationService.reconcile();
+                }
+                return null;
+            });
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            writing.set(false);
+            reconciler.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        budgetSpendTracker.flush();
+        Long spent = jdbcTemplate.queryForObject("SELECT spent_cents FROM budgets WHERE id = ?", Long.class,
+                budget.getId());
+        assertEquals(expected.get(), spent);
+    }
+
+    @Test
+    void expenseCommitsProceedWhileTheLedgerIsScanned() throws Exception {
+        // Enough rows that the scan takes far longer than one commit
+        jdbcTemplate.update("INSERT INTO transactions (id, description, category_id, date, amount_cents, type) " +
+                "SELECT NEXT VALUE FOR transactions_seq, 'Scan filler', c.id, DATE '2023-06-01', 100, 'EXPENSE' " +
+                "FROM SYSTEM_RANGE(1, 400000) r JOIN categories c ON c.name = 'Shopping'");
+        String category = "Reconcile Scan";
+        transactionService.saveTransaction(new Transaction("Scan warm-up", category, LocalDate.of(2024, 3, 1),
+                Money.ofCents(100), "EXPENSE"));
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ReconciliationReportDTO> reconciliation = pool.submit(() -> reconciliationService.reconcile());
+            long slowestNanos = 0;
+            int commits = 0;
+            while (!reconciliation.isDone()) {
+                long start = System.nanoTime();
+                transactionService.saveTransaction(new Transaction("Scan " + commits, category,
+                        LocalDate.of(2024, 3, 1), Money.ofCents(100), "EXPENSE"));
+                slowestNanos = Math.max(slowestNanos, System.nanoTime() - start);
+                commits++;
+            }
+            long elapsedMillis = reconciliation.get().getElapsedMillis();
+            long slowestMillis = TimeUnit.NANOSECONDS.toMillis(slowestNanos);
+            assertTrue(commits > 1, "no expense committed during the scan");
+            assertTrue(slowestMillis < elapsedMillis / 2,
+                    () -> "a commit waited " + slowestMillis + " ms of a " + elapsedMillis + " ms reconciliation");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
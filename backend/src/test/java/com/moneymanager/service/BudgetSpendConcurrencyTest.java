@@ -0,0 +1,94 @@
+package com.moneymanager.service;
+
+import com.moneymanager.model.Budget;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Expense writes, direct spend increments and allocation edits race on one
+ * budget row; spent_cents must end up as the exact sum of the expenses.
+ */
+@SpringBootTest
+class BudgetSpendConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int ROUNDS = 60;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentExpensesAndAllocationEditsLoseNoSpend() throws Exception {
+        String category = "Concurrency Stress";
+        Budget budget = budgetService.saveBudget(new Budget(category, Money.ofCents(100_000), null, null, null));
+        // Creates the category and rollup bucket up front, so the race is only on the budget row
+        transactionService.saveTransaction(new Transaction("Stress warm-up", category, LocalDate.of(2024, 1, 1),
+                Money.ofCents(100), "EXPENSE"));
+        AtomicLong expected = new AtomicLong(100);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ROUNDS; i++) {
+                        long cents = 100 + writer * 10 + i;
+                        switch (i % 3) {
+                            case 0:
+                                transactionService.saveTransaction(new Transaction("Stress " + writer + "/" + i,
+                                        category, LocalDate.of(2024, 1, 1 + i % 28), Money.ofCents(cents), "EXPENSE"));
+                                expected.addAndGet(cents);
+                                break;
+                            case 1:
+                                budgetService.addSpent(category, cents);
+                                expected.addAndGet(cents);
+                                break;
+                            default:
+                                budgetService.updateBudget(budget.getId(),
+                                        new Budget(category, Money.ofCents(100_000 + cents), null, null, null));
+                                break;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Long spent = jdbcTemplate.queryForObject("SELECT spent_cents FROM budgets WHERE id = ?", Long.class,
+                budget.getId());
+        assertEquals(expected.get(), spent);
+        Budget current = budgetService.getAllBudgets().stream()
+                .filter(b -> b.getId().equals(budget.getId())).findFirst().orElseThrow();
+        assertEquals(current.getAllocatedAmount().getCents() - expected.get(),
+                current.getRemainingAmount().getCents());
+    }
+}
@@ -0,0 +1,80 @@
+package com.moneymanager.service;
+
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rollup rebuilds racing with expense writes must leave every bucket equal to
+ * the transactions it covers: no delta lost, none counted twice.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rolluprebuild")
+class RollupRebuildConcurrencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int EXPENSES = 150;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildsDuringWritesLoseNoDelta() throws Exception {
+        String category = "Rebuild Stress";
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < EXPENSES; i++) {
+                        transactionService.saveTransaction(new Transaction("Rebuild " + writer + "/" + i, category,
+                                LocalDate.of(2024, 4, 1 + i % 28), Money.ofCents(100 + i), "EXPENSE"));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> rebuilder = pool.submit(() -> {
+                while (writing.get()) {
+                    rollupService.rebuild();
+                }
+                return null;
+            });
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            writing.set(false);
+            rebuilder.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<String> drifted = jdbcTemplate.queryForList(
+                "SELECT CONCAT(r.period_month, '/', r.category_id, '/', r.type) FROM monthly_category_rollups r " +
+                "LEFT JOIN (SELECT YEAR(date) * 100 + MONTH(date) AS m, category_id, type, " +
+                "SUM(amount_cents) AS total, COUNT(*) AS n FROM transactions GROUP BY m, category_id, type) t " +
+                "ON t.m = r.period_month AND t.category_id = r.category_id AND t.type = r.type " +
+                "WHERE r.total_cents <> COALESCE(t.total, 0) OR r.transaction_count <> COALESCE(t.n, 0)",
+                String.class);
+        assertEquals(List.of(), drifted);
+    }
+}
@@ -0,0 +1,91 @@
+package com.moneymanager.sql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Calls every endpoint in moneymanager.query-budget.limits with enforcement
+ * on, cold and then warm, so a change that adds queries to a budgeted
+ * endpoint fails the build. Unlisted endpoints get a budget of zero here,
+ * which also proves enforcement is live.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querybudget",
+        "moneymanager.query-budget.enforce=true",
+        "moneymanager.query-budget.default-statements=0"
+})
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void budgetedEndpointsStayWithinTheirBudgets() throws Exception {
+        for (int pass = 0; pass < 2; pass++) {
+            withinBudget(get("/api/settings"));
+            withinBudget(get("/api/dashboard/stats"));
+            withinBudget(get("/api/dashboard/bundle"));
+            withinBudget(get("/api/transactions/recent"));
+            JsonNode page = json(withinBudget(get("/api/transactions/page").param("size", "5")));
+            withinBudget(get("/api/transactions/page").param("size", "5")
+                    .param("cursor", page.get("nextCursor").asText()));
+            withinBudget(get("/api/budgets"));
+            withinBudget(get("/api/bills/unpaid"));
+
+            withinBudget(post("/api/transactions").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\":\"Budget check " + pass + "\",\"category\":\"Food & Dining\"," +
+                            "\"date\":\"" + LocalDate.now() + "\",\"amount\":12.50,\"type\":\"EXPENSE\"}"));
+            JsonNode bill = json(withinBudget(post("/api/bills").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\":\"Budget check " + pass + "\",\"category\":\"Bills & Utilities\"," +
+                            "\"amount\":40.00,\"dueDate\":\"" + LocalDate.now().plusDays(10) + "\"}")));
+            withinBudget(patch("/api/bills/{id}/toggle-status", bill.get("id").asLong()));
+            withinBudget(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"username\":\"budget" + pass + "\",\"password\":\"secret\"," +
+                            "\"email\":\"budget" + pass + "@example.com\",\"fullName\":\"Budget Check\"}"));
+        }
+    }
+
+    @Test
+    void requestOverItsBudgetFails() {
+        Exception failure = assertThrows(Exception.class, () -> mockMvc.perform(get("/api/transactions")));
+        Throwable cause = failure;
+        while (cause != null && !(cause instanceof QueryBudgetExceededException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause, "expected a QueryBudgetExceededException but got " + failure);
+    }
+
+    // Enforcement turns an overrun into an exception, so reaching the asserts means the budget held
+    private MvcResult withinBudget(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, () -> "unexpected status " + status);
+        assertNotNull(result.getResponse().getHeader(QueryBudgetFilter.HEADER_STATEMENTS));
+        return result;
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}